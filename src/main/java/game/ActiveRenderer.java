@@ -0,0 +1,130 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active rendering for a {@link GamePanel}: frames are drawn on a dedicated
+ * thread straight into a Canvas' BufferStrategy and page flipped, instead of
+ * going through repaint() and the EDT. The game loop asks for a frame with
+ * {@link #requestFrame()}; the render thread draws it while holding the
+ * panel's world lock, so a frame never sees a half-finished tick.
+ * <p>
+ * Also keeps frame-time statistics: the time between presented frames is
+ * sampled, and its median and 99th percentile are logged every few seconds.
+ */
+public class ActiveRenderer implements Runnable {
+    private static final int SAMPLE_COUNT = 1024;
+    private static final long REPORT_INTERVAL = 5_000_000_000L;
+
+    private final GamePanel gp;
+    private final Canvas canvas;
+    private volatile Thread renderThread;
+    private volatile boolean frameRequested;
+
+    // Frame-to-frame times in nanoseconds, a ring of the latest SAMPLE_COUNT frames
+    private final long[] frameTimes = new long[SAMPLE_COUNT];
+    private int frameTimeCount;
+    private int frameTimeIndex;
+    private volatile long frameTimeP50;
+    private volatile long frameTimeP99;
+
+    public ActiveRenderer(GamePanel gp) {
+        this.gp = gp;
+        canvas = new Canvas();
+        canvas.setPreferredSize(new Dimension(gp.getScreenWidth(), gp.getScreenHeight()));
+        canvas.setBackground(Color.BLACK);
+        // We paint on our own schedule; ignore the AWT's repaint requests
+        canvas.setIgnoreRepaint(true);
+        canvas.addKeyListener(gp.getKeyHandler());
+        canvas.setFocusable(true);
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    // The canvas must be displayable (added to a packed or visible window) first
+    public void start() {
+        canvas.createBufferStrategy(2);
+        canvas.requestFocus();
+        renderThread = new Thread(this, "Render");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    public void stop() {
+        Thread thread = renderThread;
+        renderThread = null;
+        LockSupport.unpark(thread);
+    }
+
+    // Game thread: wake the render thread to draw the latest tick
+    public void requestFrame() {
+        frameRequested = true;
+        LockSupport.unpark(renderThread);
+    }
+
+    @Override
+    public void run() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        long lastFrame = 0;
+        long nextReport = System.nanoTime() + REPORT_INTERVAL;
+
+        while (renderThread != null) {
+            if (!frameRequested) {
+                LockSupport.park(this);
+                continue;
+            }
+            frameRequested = false;
+
+            // The buffers may be lost (e.g. on a display mode change), in which case redraw
+            do {
+                do {
+                    Graphics2D g2 = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        g2.setColor(Color.BLACK);
+                        g2.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+                        gp.renderFrame(g2);
+                    } finally {
+                        g2.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            // Flush the window system's queue so the frame shows up now, not whenever it batches
+            Toolkit.getDefaultToolkit().sync();
+
+            long now = System.nanoTime();
+            if (lastFrame != 0) {
+                recordFrameTime(now - lastFrame);
+            }
+            lastFrame = now;
+            if (now >= nextReport) {
+                updatePercentiles();
+                System.out.printf("Frame time p50 %.2f ms, p99 %.2f ms%n", frameTimeP50 / 1e6, frameTimeP99 / 1e6);
+                nextReport = now + REPORT_INTERVAL;
+            }
+        }
+    }
+
+    private void recordFrameTime(long nanos) {
+        frameTimes[frameTimeIndex] = nanos;
+        frameTimeIndex = (frameTimeIndex + 1) % SAMPLE_COUNT;
+        frameTimeCount = Math.min(frameTimeCount + 1, SAMPLE_COUNT);
+    }
+
+    private void updatePercentiles() {
+        if (frameTimeCount == 0) return;
+        long[] sorted = Arrays.copyOf(frameTimes, frameTimeCount);
+        Arrays.sort(sorted);
+        frameTimeP50 = sorted[(frameTimeCount - 1) / 2];
+        frameTimeP99 = sorted[(frameTimeCount - 1) * 99 / 100];
+    }
+
+    // Median and 99th percentile time between presented frames, in nanoseconds, as of the last report
+    public long getFrameTimeP50() { return frameTimeP50; }
+    public long getFrameTimeP99() { return frameTimeP99; }
+}
@@ -5,11 +5,17 @@ import game.network.ChatServer;
 /**
  * Standalone launcher for the Chat Server
  * Run this before starting game instances to enable chat functionality
+ * Pass --virtual-threads to serve each connection on a virtual thread
  */
 public class ChatServerLauncher {
     public static void main(String[] args) {
         System.out.println("Starting Chat Server on port 5001...");
         
+        // Optional: serve each chat connection on a virtual thread
+        if (args.length > 0 && args[0].equals("--virtual-threads")) {
+            ChatServer.getInstance().setUseVirtualThreads(true);
+        }
+        
         // Start the chat server
         ChatServer.getInstance().start();
         
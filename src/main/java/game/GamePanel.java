@@ -8,15 +8,25 @@ import game.managers.CollisionChecker;
 import game.managers.EnemyManager;
 import game.managers.ProjectileManager;
 import game.managers.SoundManager;
+import game.managers.SpriteManager;
 import game.network.ChatClient;
 import game.network.ChatServer;
 import game.network.GameClient;
+import game.network.GameEvent;
 import game.network.GameServer;
+import game.network.GameState;
+import game.network.ReplayReader;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class GamePanel extends JPanel implements Runnable {
     // Screen settings
@@ -33,8 +43,15 @@ public class GamePanel extends JPanel implements Runnable {
     public static final int STATE_IP_INPUT = 5;
 
     // Game state
-    private int FPS = 60;
+    private int FPS = 60; // Simulation ticks per second
+    private static final int MAX_CATCH_UP_TICKS = 5; // After a stall, skip time rather than fast-forward
+    private volatile int maxRenderFps = 60;
+    private Long seed; // Enemy spawn seed for single-player games, null for different waves every game
+    private volatile long lastUpdateTime; // When the latest tick finished, for render interpolation
+    private float renderAlpha = 1; // Render thread only: progress from the previous tick to the latest
     private Thread gameThread;
+    private ActiveRenderer activeRenderer; // Set when frames bypass repaint(), see enableActiveRendering()
+    private final ReentrantLock worldLock = new ReentrantLock(); // Held by a tick, and by an active frame
     private KeyHandler keyHandler = new KeyHandler();
     private Player player;
     private EnemyManager enemyManager;
@@ -59,18 +76,26 @@ public class GamePanel extends JPanel implements Runnable {
     // Multiplayer components
     private GameClient gameClient;
     private boolean isMultiplayer = false;
-    private Map<String, OtherPlayer> otherPlayers = new HashMap<>();
+    // Filled by the network thread, drawn and moved by the game loop
+    private Map<String, OtherPlayer> otherPlayers = new ConcurrentHashMap<>();
     
     // Chat components
     private ChatUI chatUI;
     private ChatClient chatClient;
 
+    // Replay playback, see startReplay()
+    private volatile ReplayReader replay;
+    private int replayTick;
+    private ReplayReader.Record nextReplayRecord;
+    private boolean replaySeekKeyDown;
+
     public GamePanel() {
         this.setPreferredSize(new Dimension(screenWidth, screenHeight));
         this.setBackground(Color.BLACK);
         this.setDoubleBuffered(true);
         this.addKeyListener(keyHandler);
         this.setFocusable(true);
+        SpriteManager.preload();
         dbManager = new DatabaseManager();
         account = new Account(this, dbManager);
         shipSelectionState = new ShipSelectionState(this);
@@ -151,28 +176,103 @@ public class GamePanel extends JPanel implements Runnable {
         chatClient.connect();
     }
 
+    /**
+     * Switches to active rendering: frames are drawn by an {@link ActiveRenderer}
+     * on its own thread into the returned canvas, which the window must show
+     * instead of this panel. Call before {@link #startGameThread()}.
+     */
+    public Canvas enableActiveRendering() {
+        activeRenderer = new ActiveRenderer(this);
+        return activeRenderer.getCanvas();
+    }
+
     public void startGameThread() {
+        if (activeRenderer != null) {
+            activeRenderer.start();
+        }
         gameThread = new Thread(this);
         gameThread.start();
     }
 
+    /**
+     * Fixed-timestep loop: the simulation ticks exactly FPS times per second
+     * whatever the frame rate, frames are requested at most maxRenderFps times
+     * per second, and the thread parks between the two instead of spinning.
+     * Frames draw moving entities between their previous and latest tick
+     * positions, see {@link #interpolate(int, int)}. With active rendering the
+     * frames are drawn by the render thread, never in the middle of a tick.
+     */
     @Override
     public void run() {
-        double drawInterval = 1000000000 / FPS;
-        double delta = 0;
+        long updateInterval = 1_000_000_000L / FPS;
         long lastTime = System.nanoTime();
-        long currentTime;
+        long accumulator = 0;
+        long nextRender = lastTime;
 
         while (gameThread != null) {
-            currentTime = System.nanoTime();
-            delta += (currentTime - lastTime) / drawInterval;
-            lastTime = currentTime;
-
-            if (delta >= 1) {
-                update();
-                repaint();
-                delta--;
+            long now = System.nanoTime();
+            accumulator += now - lastTime;
+            lastTime = now;
+
+            int ticks = 0;
+            while (accumulator >= updateInterval && ticks < MAX_CATCH_UP_TICKS) {
+                worldLock.lock();
+                try {
+                    update();
+                } finally {
+                    worldLock.unlock();
+                }
+                lastUpdateTime = System.nanoTime();
+                accumulator -= updateInterval;
+                ticks++;
+            }
+            if (accumulator >= updateInterval) {
+                accumulator %= updateInterval;
+            }
+
+            long renderInterval = 1_000_000_000L / maxRenderFps;
+            now = System.nanoTime();
+            if (now >= nextRender) {
+                if (activeRenderer != null) {
+                    activeRenderer.requestFrame();
+                } else {
+                    repaint();
+                }
+                // Keep a steady cadence, but never try to make up for missed frames
+                nextRender = Math.max(nextRender + renderInterval, now);
             }
+
+            long nextUpdate = lastTime + updateInterval - accumulator;
+            long wait = Math.min(nextUpdate, nextRender) - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    // Render thread: where between two ticks a frame is, from 0 (previous) to 1 (latest)
+    private void updateRenderAlpha() {
+        long updateInterval = 1_000_000_000L / FPS;
+        float alpha = (float) (System.nanoTime() - lastUpdateTime) / updateInterval;
+        renderAlpha = Math.max(0, Math.min(1, alpha));
+    }
+
+    /**
+     * Position to draw an entity at in the current frame, between where it was
+     * at the start of the latest tick and where that tick left it. Frames thus
+     * trail the simulation by up to one tick but move smoothly at any frame rate.
+     */
+    public int interpolate(int previous, int current) {
+        return previous + Math.round((current - previous) * renderAlpha);
+    }
+
+    // Start of a tick: remember where everything was, see interpolate()
+    private void savePositions() {
+        player.savePosition();
+        enemyManager.savePositions();
+        projectileManager.savePositions();
+        for (OtherPlayer otherPlayer : otherPlayers.values()) {
+            otherPlayer.savePosition();
         }
     }
 
@@ -191,34 +291,41 @@ public class GamePanel extends JPanel implements Runnable {
                 ipInputState.update();
                 break;
             case STATE_PLAYING:
-                if (!gameOver) {
+                if (replay != null) {
+                    updateReplay();
+                } else if (!gameOver) {
+                    savePositions();
+
                     // Update chat UI
                     chatUI.update();
                     
-                    // Only process game controls if chat isn't visible
-                    if (!chatUI.isVisible()) {
-                        player.update();
-                    }
-                    
-                    enemyManager.update();
-                    projectileManager.update();
-                    collisionChecker.checkCollisions();
-
-                    // Update other players in multiplayer mode
                     if (isMultiplayer && gameClient != null && gameClient.isConnected()) {
+                        // The server runs the simulation: send our controls and
+                        // animate what it sent until the next snapshot arrives
+                        gameClient.sendInput(!chatUI.isVisible());
+                        projectileManager.update();
+                        gameClient.applyInterpolatedState();
                         for (OtherPlayer otherPlayer : otherPlayers.values()) {
                             otherPlayer.update();
                         }
-                        gameClient.sendGameState();
-                    }
-
-                    // Level progression
-                    if (score >= 100 && level < 2) {
-                        level = 2;
-                        enemyManager.setLevel(level);
-                    } else if (score >= 300 && level < 3) {
-                        level = 3;
-                        enemyManager.setLevel(level);
+                    } else {
+                        // Only process game controls if chat isn't visible
+                        if (!chatUI.isVisible()) {
+                            player.update();
+                        }
+                        
+                        enemyManager.update();
+                        projectileManager.update();
+                        collisionChecker.checkCollisions();
+
+                        // Level progression
+                        if (score >= 100 && level < 2) {
+                            level = 2;
+                            enemyManager.setLevel(level);
+                        } else if (score >= 300 && level < 3) {
+                            level = 3;
+                            enemyManager.setLevel(level);
+                        }
                     }
                 } else {
                     gameState = STATE_GAME_OVER;
@@ -246,6 +353,8 @@ public class GamePanel extends JPanel implements Runnable {
     }
 
     public void startGame() {
+        stopReplay();
+
         // Clear multiplayer state if exists
         if (gameClient != null) {
             gameClient.disconnect();
@@ -270,6 +379,7 @@ public class GamePanel extends JPanel implements Runnable {
 
         // Reinitialize game
         initGame();
+        seedEnemies();
 
         // Restart background music if sound is enabled
         if (soundManager != null) {
@@ -277,17 +387,31 @@ public class GamePanel extends JPanel implements Runnable {
         }
     }
 
+    // With a seed set, every game starts the same enemy sequence
+    private void seedEnemies() {
+        if (seed != null) {
+            enemyManager.setSeed(seed);
+        }
+    }
+
     public void restartGame(){
         score = 0;
         level = 1;
         enemyManager.setLevel(level);
+        seedEnemies();
         gameOver = false;
         gameState = STATE_PLAYING;
         playerLives = selectedShip.getHealth();
         player.setX(getScreenWidth() / 2 - getTileSize() / 2);
         player.setY(getScreenHeight() - getTileSize() - 20);
+        player.savePosition(); // Respawn in place rather than glide there
         player.setlives(playerLives);
 
+        // Ask the server for a fresh ship
+        if (isMultiplayer && gameClient != null) {
+            gameClient.rejoin();
+        }
+
         // Clear all game objects
         if (enemyManager != null) {
             enemyManager.clearEnemies();
@@ -307,6 +431,22 @@ public class GamePanel extends JPanel implements Runnable {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g;
+        drawFrame(g2);
+        g2.dispose();
+    }
+
+    // Active render thread: draws a frame once no tick is running
+    void renderFrame(Graphics2D g2) {
+        worldLock.lock();
+        try {
+            drawFrame(g2);
+        } finally {
+            worldLock.unlock();
+        }
+    }
+
+    private void drawFrame(Graphics2D g2) {
+        updateRenderAlpha();
 
         switch (gameState) {
             case STATE_MENU:
@@ -327,13 +467,16 @@ public class GamePanel extends JPanel implements Runnable {
                 enemyManager.draw(g2);
                 
                 // Draw other players in multiplayer mode
-                if (isMultiplayer) {
+                if (isMultiplayer || replay != null) {
                     for (OtherPlayer otherPlayer : otherPlayers.values()) {
                         otherPlayer.draw(g2);
                     }
                 }
                 
-                player.draw(g2);
+                // A replay has no local player, everyone in it is drawn as another player
+                if (replay == null) {
+                    player.draw(g2);
+                }
                 projectileManager.draw(g2);
                 ui.draw(g2);
                 
@@ -345,10 +488,139 @@ public class GamePanel extends JPanel implements Runnable {
                 ui.drawGameOverScreen(g2);
                 break;
         }
+    }
 
-        g2.dispose();
+    /**
+     * Plays back a file written by a ReplayRecorder instead of a live game:
+     * snapshots are shown tick by tick from the first keyframe on. Left and
+     * right jump a keyframe back or forward, Escape returns to the menu.
+     */
+    public boolean startReplay(Path file) {
+        ReplayReader reader;
+        try {
+            reader = new ReplayReader(file);
+        } catch (IOException e) {
+            System.out.println("Cannot open replay " + file + ": " + e.getMessage());
+            return false;
+        }
+        if (reader.getKeyframeCount() == 0) {
+            System.out.println("Replay " + file + " is empty");
+            closeReplay(reader);
+            return false;
+        }
+
+        startGame();
+        replay = reader;
+        seekReplay(0);
+        return true;
+    }
+
+    // Game thread: restarts playback at a keyframe, from a clean world
+    public void seekReplay(int keyframeIndex) {
+        ReplayReader reader = replay;
+        if (reader == null) return;
+
+        int index = Math.max(0, Math.min(keyframeIndex, reader.getKeyframeCount() - 1));
+        enemyManager.clearEnemies();
+        projectileManager.clearProjectiles();
+        projectileManager.clearExplosions();
+        otherPlayers.clear();
+        try {
+            reader.seekKeyframe(index);
+            nextReplayRecord = reader.next();
+        } catch (IOException e) {
+            System.out.println("Replay seek failed: " + e.getMessage());
+            stopReplay();
+            return;
+        }
+        replayTick = reader.getKeyframeTick(index);
+        applyReplayRecords();
+        savePositions(); // Appear at the keyframe rather than glide there
+    }
+
+    private void updateReplay() {
+        // One seek per key press, however long it is held
+        if (keyHandler.leftPressed || keyHandler.rightPressed) {
+            if (!replaySeekKeyDown) {
+                int current = replay.findKeyframe(replayTick);
+                seekReplay(current + (keyHandler.rightPressed ? 1 : -1));
+            }
+            replaySeekKeyDown = true;
+            return;
+        }
+        replaySeekKeyDown = false;
+
+        if (keyHandler.escapePressed) {
+            keyHandler.escapePressed = false;
+            stopReplay();
+            gameState = STATE_MENU;
+            return;
+        }
+
+        savePositions();
+        replayTick++;
+        applyReplayRecords();
+    }
+
+    // Applies every record up to the current replay tick
+    private void applyReplayRecords() {
+        try {
+            while (nextReplayRecord != null && nextReplayRecord.getTick() <= replayTick) {
+                Object message = nextReplayRecord.getMessage();
+                if (message instanceof GameState) {
+                    applyReplayState((GameState) message);
+                } else if (message instanceof GameEvent) {
+                    GameEvent event = (GameEvent) message;
+                    if (event.getType() == GameEvent.ENEMY_DESTROYED || event.getType() == GameEvent.PLAYER_DIED) {
+                        projectileManager.addExplosion(event.getX(), event.getY());
+                    }
+                }
+                nextReplayRecord = replay.next();
+            }
+        } catch (IOException e) {
+            System.out.println("Replay stopped: " + e.getMessage());
+            nextReplayRecord = null;
+        }
+    }
+
+    private void applyReplayState(GameState state) {
+        List<String> departed = new ArrayList<>(otherPlayers.keySet());
+        int bestScore = 0;
+        for (GameState.PlayerState playerState : state.getPlayers()) {
+            departed.remove(playerState.getPlayerId());
+            updateOtherPlayer(playerState.getPlayerId(), playerState.getX(), playerState.getY());
+            OtherPlayer otherPlayer = otherPlayers.get(playerState.getPlayerId());
+            otherPlayer.setUsername(playerState.getUsername());
+            otherPlayer.setShipImagePath(playerState.getShipImagePath());
+            bestScore = Math.max(bestScore, playerState.getScore());
+        }
+        for (String playerId : departed) {
+            removeOtherPlayer(playerId);
+        }
+        enemyManager.syncEnemies(state.getEnemies());
+        projectileManager.syncProjectiles(state.getProjectiles(), null);
+        level = state.getLevel();
+        score = bestScore;
+    }
+
+    private void stopReplay() {
+        ReplayReader reader = replay;
+        if (reader == null) return;
+        replay = null;
+        nextReplayRecord = null;
+        closeReplay(reader);
     }
 
+    private static void closeReplay(ReplayReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public boolean isReplaying() { return replay != null; }
+
     // Multiplayer methods
     public void addOtherPlayer(String playerId) {
         if (!otherPlayers.containsKey(playerId)) {
@@ -369,11 +641,13 @@ public class GamePanel extends JPanel implements Runnable {
         OtherPlayer player = otherPlayers.get(playerId);
         if (player != null) {
             player.setPosition(x, y);
-            System.out.println("Updated player position: " + playerId + " at " + x + "," + y);
         }
     }
 
     // Getters and setters
+    public int getMaxRenderFps() { return maxRenderFps; }
+    public void setMaxRenderFps(int maxRenderFps) { this.maxRenderFps = Math.max(1, maxRenderFps); }
+    public void setSeed(long seed) { this.seed = seed; }
     public int getTileSize() { return tileSize; }
     public int getScreenWidth() { return screenWidth; }
     public int getScreenHeight() { return screenHeight; }
@@ -383,9 +657,11 @@ public class GamePanel extends JPanel implements Runnable {
     public SoundManager getSoundManager() { return soundManager; }
     public int getScore() { return score; }
     public void addScore(int points) { score += points; }
+    public void setScore(int score) { this.score = score; }
     public int getPlayerLives() { return playerLives; }
     public void decreasePlayerLives() { playerLives--; }
     public int getLevel() { return level; }
+    public void setLevel(int level) { this.level = level; }
     public boolean isGameOver() { return gameOver; }
     public void setGameState(int gameState) { this.gameState = gameState; }
     public void setCurrentUser(String username) { 
@@ -0,0 +1,88 @@
+package game;
+
+import game.network.GameEvent;
+import game.network.GameState;
+import game.network.GameWorld;
+import game.network.JoinRequest;
+import game.network.PlayerInput;
+import game.network.ServerSimulation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Headless soak test for the game world
+ * Runs a GameWorld with no window and no server, as fast as it will go, with
+ * simple bots for players: each one chases the enemy nearest to it
+ * horizontally, fires whenever it can and rejoins after dying. Reports ticks
+ * per second and what happened in the match.
+ * Usage: HeadlessLauncher [bots] [ticks]
+ */
+public class HeadlessLauncher {
+    private static final int BOT_SPEED = 5;
+    private static final int BOT_LIVES = 3;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int botCount = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int tickCount = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        GameWorld world = new ServerSimulation();
+        for (int i = 0; i < botCount; i++) {
+            world.addPlayer(botJoin("bot" + i));
+        }
+
+        Map<Integer, Integer> eventCounts = new HashMap<>();
+        int sequence = 0;
+        int bestScore = 0;
+        int maxEntities = 0;
+        long start = System.nanoTime();
+        for (int tick = 0; tick < tickCount; tick++) {
+            // Bots see the world the way a client does: through the latest snapshot
+            GameState state = world.snapshot();
+            for (GameState.PlayerState player : state.getPlayers()) {
+                world.applyInput(player.getPlayerId(), new PlayerInput(++sequence, botButtons(player, state)));
+                bestScore = Math.max(bestScore, player.getScore());
+            }
+            maxEntities = Math.max(maxEntities, state.getEnemies().size() + state.getProjectiles().size());
+
+            world.step();
+            for (GameEvent event : world.drainEvents()) {
+                eventCounts.merge(event.getType(), 1, Integer::sum);
+                if (event.getType() == GameEvent.PLAYER_DIED) {
+                    world.addPlayer(botJoin(event.getPlayerId()));
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("Bots:              " + botCount);
+        System.out.println("Ticks:             " + tickCount);
+        System.out.printf("Ticks per second:  %.0f (%.1fx real time)%n",
+                tickCount / (elapsed / 1e9), tickCount * (double) ServerSimulation.TICK_MILLIS / (elapsed / 1e6));
+        System.out.println("Enemies killed:    " + eventCounts.getOrDefault(GameEvent.ENEMY_DESTROYED, 0));
+        System.out.println("Bot deaths:        " + eventCounts.getOrDefault(GameEvent.PLAYER_DIED, 0));
+        System.out.println("Best score:        " + bestScore);
+        System.out.println("Peak entities:     " + maxEntities);
+    }
+
+    static JoinRequest botJoin(String playerId) {
+        return new JoinRequest(playerId, playerId, null, BOT_SPEED, BOT_LIVES);
+    }
+
+    static int botButtons(GameState.PlayerState player, GameState state) {
+        int buttons = PlayerInput.SHOOT;
+        int targetX = -1;
+        for (GameState.EnemyState enemy : state.getEnemies()) {
+            if (targetX < 0 || Math.abs(enemy.getX() - player.getX()) < Math.abs(targetX - player.getX())) {
+                targetX = enemy.getX();
+            }
+        }
+        if (targetX >= 0 && targetX < player.getX() - BOT_SPEED) {
+            buttons |= PlayerInput.LEFT;
+        } else if (targetX >= 0 && targetX > player.getX() + BOT_SPEED) {
+            buttons |= PlayerInput.RIGHT;
+        }
+        return buttons;
+    }
+}
@@ -1,16 +1,91 @@
 package game;
 
+import game.network.GameClient;
+import game.network.GameServer;
+
 import javax.swing.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class Main {
+    private static final int MIN_FPS = 10;
+    private static final int MAX_FPS = 1000;
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: Main [options] [fps]",
+            "  fps, --fps <n>       frame cap, " + MIN_FPS + " to " + MAX_FPS + " (default 60)",
+            "  --active-rendering   draw page-flipped frames from a render thread",
+            "  --record <dir>       save matches played (and rooms hosted) to this directory",
+            "  --replay <file>      play back a recorded match",
+            "  --seed <n>           same enemy waves every single-player game");
+
     public static void main(String[] args) {
+        Integer maxRenderFps = null;
+        boolean activeRendering = false;
+        Path recordDirectory = null;
+        Path replayFile = null;
+        Long seed = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--active-rendering":
+                        activeRendering = true;
+                        break;
+                    case "--fps":
+                        maxRenderFps = parseFps(value(args, ++i, arg));
+                        break;
+                    case "--record":
+                        recordDirectory = Paths.get(value(args, ++i, arg));
+                        break;
+                    case "--replay":
+                        replayFile = Paths.get(value(args, ++i, arg));
+                        break;
+                    case "--seed":
+                        seed = parseSeed(value(args, ++i, arg));
+                        break;
+                    case "-h":
+                    case "--help":
+                        System.out.println(USAGE);
+                        return;
+                    default:
+                        // A bare number is the frame cap, e.g. 144
+                        if (arg.startsWith("-") || maxRenderFps != null) {
+                            throw new IllegalArgumentException("Unknown argument: " + arg);
+                        }
+                        maxRenderFps = parseFps(arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        if (recordDirectory != null) {
+            GameClient.setReplayDirectory(recordDirectory);
+            GameServer.getInstance().setReplayDirectory(recordDirectory);
+        }
+
         JFrame window = new JFrame();
         window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         window.setResizable(false);
         window.setTitle("Space Shooter Game");
 
         GamePanel gamePanel = new GamePanel();
-        window.add(gamePanel);
+        if (maxRenderFps != null) {
+            gamePanel.setMaxRenderFps(maxRenderFps);
+        }
+        if (seed != null) {
+            gamePanel.setSeed(seed);
+        }
+        if (replayFile != null) {
+            gamePanel.startReplay(replayFile);
+        }
+        if (activeRendering) {
+            window.add(gamePanel.enableActiveRendering());
+        } else {
+            window.add(gamePanel);
+        }
         window.pack();
 
         window.setLocationRelativeTo(null);
@@ -18,4 +93,32 @@ public class Main {
 
         gamePanel.startGameThread();
     }
-}
\ No newline at end of file
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static long parseSeed(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a seed: " + value);
+        }
+    }
+
+    private static int parseFps(String value) {
+        int fps;
+        try {
+            fps = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a frame rate: " + value);
+        }
+        if (fps < MIN_FPS || fps > MAX_FPS) {
+            throw new IllegalArgumentException("Frame rate must be " + MIN_FPS + " to " + MAX_FPS + ": " + fps);
+        }
+        return fps;
+    }
+}
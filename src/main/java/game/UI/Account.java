@@ -2,8 +2,8 @@ package game.UI;
 
 import game.DAO.DatabaseManager;
 import game.GamePanel;
+import game.managers.SpriteManager;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
@@ -24,11 +24,7 @@ public class Account{
     public Account(GamePanel gp, DatabaseManager db) {
         this.gp = gp;
         this.db = db;
-        try {
-            backgroundImage = ImageIO.read(getClass().getResourceAsStream("/background/space.png"));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        backgroundImage = SpriteManager.get(SpriteManager.BACKGROUND);
     }
 
     public void update() {
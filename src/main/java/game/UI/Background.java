@@ -1,28 +1,27 @@
 package game.UI;
 
 import game.GamePanel;
+import game.managers.SpriteManager;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 
 public class Background {
     private GamePanel gp;
     private BufferedImage image;
+    // The image scaled to the screen once, rather than on every frame
+    private final CachedLayer layer;
 
 
     public Background(GamePanel gp) {
         this.gp = gp;
-        try {
-            image = ImageIO.read(getClass().getResourceAsStream("/background/space.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        image = SpriteManager.get(SpriteManager.BACKGROUND);
+        layer = new CachedLayer(gp.getScreenWidth(), gp.getScreenHeight(), Transparency.OPAQUE,
+                g2 -> g2.drawImage(image, 0, 0, gp.getScreenWidth(), gp.getScreenHeight(), null));
     }
 
 
     public void draw(Graphics2D g2) {
-        g2.drawImage(image, 0, 0, gp.getScreenWidth(), gp.getScreenHeight(), null);
+        layer.draw(g2, 0, 0);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package game.UI;
+
+import java.awt.*;
+import java.awt.image.VolatileImage;
+import java.util.function.Consumer;
+
+/**
+ * A fixed-size piece of the screen that rarely changes, kept pre-rendered in
+ * a VolatileImage so each frame only blits it. The painter runs again only
+ * after {@link #invalidate()}, or when the image was lost or has to be
+ * recreated for a different screen. Painters draw in layer coordinates, onto
+ * a fully transparent image for translucent layers.
+ */
+final class CachedLayer {
+    private final int width;
+    private final int height;
+    private final int transparency;
+    private final Consumer<Graphics2D> painter;
+    private VolatileImage image;
+    private boolean dirty = true;
+
+    CachedLayer(int width, int height, int transparency, Consumer<Graphics2D> painter) {
+        this.width = width;
+        this.height = height;
+        this.transparency = transparency;
+        this.painter = painter;
+    }
+
+    void invalidate() {
+        dirty = true;
+    }
+
+    void draw(Graphics2D g2, int x, int y) {
+        GraphicsConfiguration config = g2.getDeviceConfiguration();
+        do {
+            int status = image == null ? VolatileImage.IMAGE_INCOMPATIBLE : image.validate(config);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (image != null) {
+                    image.flush();
+                }
+                image = config.createCompatibleVolatileImage(width, height, transparency);
+                dirty = true;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                dirty = true;
+            }
+            if (dirty) {
+                render();
+                dirty = false;
+            }
+            g2.drawImage(image, x, y, null);
+        } while (image.contentsLost());
+    }
+
+    private void render() {
+        Graphics2D g2 = image.createGraphics();
+        try {
+            if (transparency != Transparency.OPAQUE) {
+                g2.setComposite(AlphaComposite.Clear);
+                g2.fillRect(0, 0, width, height);
+                g2.setComposite(AlphaComposite.SrcOver);
+            }
+            painter.accept(g2);
+        } finally {
+            g2.dispose();
+        }
+    }
+}
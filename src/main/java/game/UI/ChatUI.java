@@ -19,12 +19,23 @@ public class ChatUI {
     private static final Color CHAT_BG_COLOR = new Color(0, 0, 0, 180);
     private static final Color CHAT_INPUT_COLOR = new Color(50, 50, 50, 200);
     private static final Color CHAT_TEXT_COLOR = Color.WHITE;
+    private static final Color CHAT_BORDER_COLOR = new Color(150, 150, 150, 200);
+    private static final Font MESSAGE_FONT = new Font("Arial", Font.PLAIN, 14);
+    private static final Font HINT_FONT = new Font("Arial", Font.PLAIN, 10);
     
     // Chat state
     private boolean isVisible = false;
     private String inputText = "";
-    private List<ChatMessage> messages = new ArrayList<>();
+    private List<ChatMessage> messages = new ArrayList<>(); // Guarded by itself, added to by the chat thread
     private int scrollPosition = 0;
+    private int messageVersion = 0; // Bumped on every change to messages
+
+    // The panel is laid out into a cached image, redone only when what it shows changes
+    private final CachedLayer layer = new CachedLayer(CHAT_WIDTH + 1, CHAT_HEIGHT + 1,
+            Transparency.TRANSLUCENT, this::paintChat);
+    private int shownVersion = -1;
+    private String shownInput;
+    private boolean shownCaret;
     
     // References
     private GamePanel gamePanel;
@@ -82,57 +93,76 @@ public class ChatUI {
     public void draw(Graphics2D g2) {
         if (!isVisible) return;
         
-        int screenWidth = gamePanel.getScreenWidth();
         int screenHeight = gamePanel.getScreenHeight();
         
         // Position chat in bottom left
         int chatX = CHAT_MARGIN;
         int chatY = screenHeight - CHAT_HEIGHT - CHAT_MARGIN;
         
+        boolean caret = System.currentTimeMillis() % 1000 < 500;
+        int version;
+        synchronized (messages) {
+            version = messageVersion;
+        }
+        if (version != shownVersion || !inputText.equals(shownInput) || caret != shownCaret) {
+            shownInput = inputText;
+            shownCaret = caret;
+            layer.invalidate();
+        }
+        layer.draw(g2, chatX, chatY);
+    }
+    
+    // Draws the whole panel with its top left corner at 0, 0
+    private void paintChat(Graphics2D g2) {
         // Draw chat background
         g2.setColor(CHAT_BG_COLOR);
-        g2.fillRoundRect(chatX, chatY, CHAT_WIDTH, CHAT_HEIGHT, 10, 10);
+        g2.fillRoundRect(0, 0, CHAT_WIDTH, CHAT_HEIGHT, 10, 10);
         
         // Draw chat messages
         g2.setColor(CHAT_TEXT_COLOR);
-        g2.setFont(new Font("Arial", Font.PLAIN, 14));
+        g2.setFont(MESSAGE_FONT);
         
-        int messageY = chatY + CHAT_HEIGHT - INPUT_HEIGHT - 10;
-        int displayCount = Math.min(MAX_VISIBLE_MESSAGES, messages.size() - scrollPosition);
-        
-        for (int i = scrollPosition; i < scrollPosition + displayCount; i++) {
-            int index = messages.size() - 1 - i;
-            if (index >= 0) {
-                ChatMessage message = messages.get(index);
-                String text = message.toString();
-                g2.drawString(text, chatX + 10, messageY);
-                messageY -= 20; // Move up for next message
+        int messageY = CHAT_HEIGHT - INPUT_HEIGHT - 10;
+        synchronized (messages) {
+            shownVersion = messageVersion;
+            int displayCount = Math.min(MAX_VISIBLE_MESSAGES, messages.size() - scrollPosition);
+            
+            for (int i = scrollPosition; i < scrollPosition + displayCount; i++) {
+                int index = messages.size() - 1 - i;
+                if (index >= 0) {
+                    ChatMessage message = messages.get(index);
+                    String text = message.toString();
+                    g2.drawString(text, 10, messageY);
+                    messageY -= 20; // Move up for next message
+                }
             }
         }
         
         // Draw input box
         g2.setColor(CHAT_INPUT_COLOR);
-        g2.fillRoundRect(chatX + 5, chatY + CHAT_HEIGHT - INPUT_HEIGHT - 5, 
+        g2.fillRoundRect(5, CHAT_HEIGHT - INPUT_HEIGHT - 5, 
                          CHAT_WIDTH - 10, INPUT_HEIGHT, 5, 5);
         
         // Draw input text
         g2.setColor(CHAT_TEXT_COLOR);
-        g2.drawString(inputText + (System.currentTimeMillis() % 1000 < 500 ? "|" : ""), 
-                     chatX + 10, chatY + CHAT_HEIGHT - 10);
+        g2.drawString(shownInput + (shownCaret ? "|" : ""), 10, CHAT_HEIGHT - 10);
         
         // Draw border
-        g2.setColor(new Color(150, 150, 150, 200));
-        g2.drawRoundRect(chatX, chatY, CHAT_WIDTH, CHAT_HEIGHT, 10, 10);
+        g2.setColor(CHAT_BORDER_COLOR);
+        g2.drawRoundRect(0, 0, CHAT_WIDTH, CHAT_HEIGHT, 10, 10);
         
         // Draw instructions
-        g2.setFont(new Font("Arial", Font.PLAIN, 10));
-        g2.drawString("Press ESC to close", chatX + 5, chatY + 15);
+        g2.setFont(HINT_FONT);
+        g2.drawString("Press ESC to close", 5, 15);
     }
     
     public void addMessage(ChatMessage message) {
-        messages.add(message);
-        // Auto-scroll to bottom when new messages arrive
-        scrollPosition = Math.max(0, messages.size() - MAX_VISIBLE_MESSAGES);
+        synchronized (messages) {
+            messages.add(message);
+            // Auto-scroll to bottom when new messages arrive
+            scrollPosition = Math.max(0, messages.size() - MAX_VISIBLE_MESSAGES);
+            messageVersion++;
+        }
     }
     
     public boolean isVisible() {
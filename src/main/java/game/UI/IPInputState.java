@@ -1,8 +1,8 @@
 package game.UI;
 
 import game.GamePanel;
+import game.managers.SpriteManager;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
@@ -19,11 +19,7 @@ public class IPInputState {
 
     public IPInputState(GamePanel gp) {
         this.gp = gp;
-        try {
-            backgroundImage = ImageIO.read(getClass().getResourceAsStream("/background/space.png"));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        backgroundImage = SpriteManager.get(SpriteManager.BACKGROUND);
     }
 
     public void update() {
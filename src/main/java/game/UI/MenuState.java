@@ -1,8 +1,8 @@
 package game.UI;
 
 import game.GamePanel;
+import game.managers.SpriteManager;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
@@ -21,7 +21,7 @@ public class MenuState {
         try {
             titleFont = new Font("Arial", Font.BOLD, 40);
             menuFont = new Font("Arial", Font.PLAIN, 30);
-            backgroundImage = ImageIO.read(getClass().getResourceAsStream("/background/space.png"));
+            backgroundImage = SpriteManager.get(SpriteManager.BACKGROUND);
         } catch (Exception e) {
             e.printStackTrace();
         }
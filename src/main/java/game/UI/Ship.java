@@ -1,8 +1,8 @@
 package game.UI;
 
-import javax.imageio.ImageIO;
+import game.managers.SpriteManager;
+
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 
 public class Ship{
     private final String name;
@@ -16,17 +16,7 @@ public class Ship{
         this.speed = speed;
         this.health = health;
         this.imagePath = imagePath;
-        this.image = loadImage();
-    }
-
-    private BufferedImage loadImage() {
-        try {
-            return ImageIO.read(getClass().getResourceAsStream(imagePath));
-        } catch (IOException e) {
-            System.err.println("Error loading ship image: " + imagePath);
-            e.printStackTrace();
-            return null;
-        }
+        this.image = SpriteManager.get(imagePath);
     }
 
     // Getters
@@ -2,8 +2,8 @@ package game.UI;
 
 import game.GamePanel;
 import game.managers.ShipManager;
+import game.managers.SpriteManager;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.List;
@@ -24,11 +24,7 @@ public class ShipSelectionState {
         this.gp = gp;
         this.shipManager = new ShipManager();
         this.ships = shipManager.getAvailableShips();
-        try {
-            backgroundImage = ImageIO.read(getClass().getResourceAsStream("/background/space.png"));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        backgroundImage = SpriteManager.get(SpriteManager.BACKGROUND);
     }
 
     public void update() {
@@ -1,42 +1,51 @@
 package game.UI;
 
 import game.GamePanel;
+import game.managers.SpriteManager;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 
 public class UI {
+    private static final Font ARIAL_20 = new Font("Arial", Font.PLAIN, 20);
+    private static final Font ARIAL_BOLD_40 = new Font("Arial", Font.BOLD, 40);
+    private static final Color GAME_OVER_SHADE = new Color(0, 0, 0, 150);
+    private static final int STATS_HEIGHT = 70;
+    private static final int HEART_SIZE = 24;
+
     private GamePanel gp;
-    private Font arial_20;
     private BufferedImage heartImage;
 
+    // HUD text and hearts are only redrawn when the values they show change
+    private final CachedLayer statsLayer;
+    private final CachedLayer livesLayer;
+    private final CachedLayer gameOverLayer;
+    private int shownScore = -1;
+    private int shownLevel = -1;
+    private int shownLives = -1;
+    private int shownFinalScore = -1;
+
     public UI(GamePanel gp) {
         this.gp = gp;
-        arial_20 = new Font("Arial", Font.PLAIN, 20);
 
-        try {
-            heartImage = ImageIO.read(getClass().getResourceAsStream("/player/heart.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        heartImage = SpriteManager.get(SpriteManager.HEART);
+
+        statsLayer = new CachedLayer(gp.getScreenWidth(), STATS_HEIGHT, Transparency.TRANSLUCENT, this::paintStats);
+        livesLayer = new CachedLayer(gp.getScreenWidth(), HEART_SIZE, Transparency.TRANSLUCENT, this::paintLives);
+        gameOverLayer = new CachedLayer(gp.getScreenWidth(), gp.getScreenHeight(), Transparency.TRANSLUCENT,
+                this::paintGameOverScreen);
     }
 
     public void draw(Graphics2D g2) {
-        g2.setFont(arial_20);
-        g2.setColor(Color.WHITE);
-
-        // Draw score
-        g2.drawString("Score: " + gp.getScore(), 20, 30);
-
-        // Draw level
-        g2.drawString("Level: " + gp.getLevel(), 20, 60);
+        if (gp.getScore() != shownScore || gp.getLevel() != shownLevel) {
+            statsLayer.invalidate();
+        }
+        statsLayer.draw(g2, 0, 0);
 
-        // Draw player lives
-        for (int i = 0; i < gp.getPlayerLives(); i++) {
-            g2.drawImage(heartImage, 20 + i * 30, gp.getScreenHeight() - 40, 24, 24, null);
+        if (gp.getPlayerLives() != shownLives) {
+            livesLayer.invalidate();
         }
+        livesLayer.draw(g2, 0, gp.getScreenHeight() - 40);
 
         // Draw game over screen
         if (gp.isGameOver()) {
@@ -45,19 +54,47 @@ public class UI {
     }
 
     public void drawGameOverScreen(Graphics2D g2) {
-        g2.setColor(new Color(0, 0, 0, 150));
+        if (gp.getScore() != shownFinalScore) {
+            gameOverLayer.invalidate();
+        }
+        gameOverLayer.draw(g2, 0, 0);
+    }
+
+    private void paintStats(Graphics2D g2) {
+        shownScore = gp.getScore();
+        shownLevel = gp.getLevel();
+        g2.setFont(ARIAL_20);
+        g2.setColor(Color.WHITE);
+
+        // Draw score
+        g2.drawString("Score: " + shownScore, 20, 30);
+
+        // Draw level
+        g2.drawString("Level: " + shownLevel, 20, 60);
+    }
+
+    private void paintLives(Graphics2D g2) {
+        shownLives = gp.getPlayerLives();
+        for (int i = 0; i < shownLives; i++) {
+            g2.drawImage(heartImage, 20 + i * 30, 0, HEART_SIZE, HEART_SIZE, null);
+        }
+    }
+
+    private void paintGameOverScreen(Graphics2D g2) {
+        shownFinalScore = gp.getScore();
+        g2.setColor(GAME_OVER_SHADE);
         g2.fillRect(0, 0, gp.getScreenWidth(), gp.getScreenHeight());
 
         g2.setColor(Color.WHITE);
-        g2.setFont(new Font("Arial", Font.BOLD, 40));
+        g2.setFont(ARIAL_BOLD_40);
 
         String text = "GAME OVER";
         int x = getXForCenteredText(text, g2);
         int y = gp.getScreenHeight() / 2 - 50;
         g2.drawString(text, x, y);
 
-        g2.setFont(new Font("Arial", Font.PLAIN, 20));
-        text = "Final Score: " + gp.getScore();
+        g2.setFont(ARIAL_20);
+        text = "Final Score: " + shownFinalScore;
         x = getXForCenteredText(text, g2);
         y += 50;
         g2.drawString(text, x, y);
@@ -72,4 +109,4 @@ public class UI {
         int length = (int)g2.getFontMetrics().getStringBounds(text, g2).getWidth();
         return gp.getScreenWidth() / 2 - length / 2;
     }
-}
\ No newline at end of file
+}
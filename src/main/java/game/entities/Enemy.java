@@ -2,17 +2,18 @@ package game.entities;
 
 import game.GamePanel;
 import game.managers.SoundManager;
+import game.managers.SpriteManager;
+import game.network.EnemyMotion;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 
 public class Enemy {
     private GamePanel gp;
 
     // Enemy properties
     private int x, y;
+    private int prevX, prevY; // Position at the start of the current tick, for drawing
     private int speed;
     private int width = 48;
     private int height = 48;
@@ -32,6 +33,10 @@ public class Enemy {
     private int shootTimer = 0;
     private int shootInterval = 120;
 
+    // Multiplayer
+    private int networkId; // Server entity ID, 0 for local enemies
+    private int syncGeneration; // Last snapshot that still contained us
+
     public Enemy(GamePanel gp, int x, int y, int type) {
         this.gp = gp;
         this.x = x;
@@ -44,38 +49,27 @@ public class Enemy {
                 speed = 1;
                 health = 1;
                 points = 10;
-                movementPattern = 0;
-                try {
-                    image = ImageIO.read(getClass().getResourceAsStream("/enemy/enemyship1.png"));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+                movementPattern = EnemyMotion.STRAIGHT;
                 break;
             case 2:
                 speed = 2;
                 health = 2;
                 points = 20;
-                movementPattern = 1;
-                try {
-                    image = ImageIO.read(getClass().getResourceAsStream("/enemy/enemyship2.png"));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+                movementPattern = EnemyMotion.SINE;
                 break;
             case 3:
                 speed = 2;
                 health = 3;
                 points = 30;
-                movementPattern = 2;
-                try {
-                    image = ImageIO.read(getClass().getResourceAsStream("/enemy/enemyship3.png"));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+                movementPattern = EnemyMotion.COSINE;
                 break;
         }
+        if (type >= 1 && type <= SpriteManager.ENEMY_SHIPS.length) {
+            image = SpriteManager.get(SpriteManager.ENEMY_SHIPS[type - 1]);
+        }
 
         hitbox = new Rectangle(x, y, width, height);
+        savePosition();
     }
 
     public void update() {
@@ -83,16 +77,7 @@ public class Enemy {
         y += speed;
 
         // Movement patterns
-        switch (movementPattern) {
-            case 0: // Straight down
-                break;
-            case 1: // Zigzag
-                x += (int)(Math.sin(movementCounter * 0.1) * 2);
-                break;
-            case 2: // Zigzag
-                x += (int)(Math.cos(movementCounter * 0.1) * 3);
-                break;
-        }
+        x += EnemyMotion.sway(movementPattern, movementCounter);
         movementCounter++;
 
         // Update hitbox
@@ -108,7 +93,12 @@ public class Enemy {
     }
 
     public void draw(Graphics2D g2) {
-        g2.drawImage(image, x, y, width, height, null);
+        g2.drawImage(image, gp.interpolate(prevX, x), gp.interpolate(prevY, y), width, height, null);
+    }
+
+    public final void savePosition() {
+        prevX = x;
+        prevY = y;
     }
 
     public void takeDamage() {
@@ -135,4 +125,15 @@ public class Enemy {
     public int getHeight() { return height; }
     public int getType() { return type; }
     public int getHealth() { return health; }
+    public void setHealth(int health) { this.health = health; }
+    public void setPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.hitbox.x = x;
+        this.hitbox.y = y;
+    }
+    public int getNetworkId() { return networkId; }
+    public void setNetworkId(int networkId) { this.networkId = networkId; }
+    public int getSyncGeneration() { return syncGeneration; }
+    public void setSyncGeneration(int syncGeneration) { this.syncGeneration = syncGeneration; }
 }
\ No newline at end of file
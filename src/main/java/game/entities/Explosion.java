@@ -1,11 +1,10 @@
 package game.entities;
 
 import game.GamePanel;
+import game.managers.SpriteManager;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 
 public class Explosion {
     private GamePanel gp;
@@ -18,17 +17,24 @@ public class Explosion {
     private boolean finished = false;
 
     public Explosion(GamePanel gp, int x, int y) {
+        this(gp);
+        reset(x, y);
+    }
+
+    // Blank explosion for a pool; reset() before use
+    public Explosion(GamePanel gp) {
         this.gp = gp;
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = SpriteManager.get(SpriteManager.EXPLOSION_FRAMES[i]);
+        }
+    }
+
+    // Restarts the animation centred on (x, y)
+    public final void reset(int x, int y) {
         this.x = x - width / 2;
         this.y = y - height / 2;
-
-        try {
-            frames[0] = ImageIO.read(getClass().getResourceAsStream("/explosion/explosion1.png"));
-            frames[1] = ImageIO.read(getClass().getResourceAsStream("/explosion/explosion2.png"));
-            frames[2] = ImageIO.read(getClass().getResourceAsStream("/explosion/explosion3.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        frameCounter = 0;
+        finished = false;
     }
 
     public void update() {
@@ -1,17 +1,17 @@
 package game.entities;
 
 import game.GamePanel;
+import game.managers.SpriteManager;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 
 public class OtherPlayer {
     private GamePanel gp;
     private String playerId;
     private String username;
     private int x, y;
+    private int prevX, prevY; // Position at the start of the current tick, for drawing
     private int width = 48;
     private int height = 48;
     private BufferedImage image;
@@ -24,24 +24,18 @@ public class OtherPlayer {
         this.username = playerId;
         this.x = gp.getScreenWidth() / 2 - width / 2;
         this.y = gp.getScreenHeight() - height - 20;
-        this.shipImagePath = "/player/playership1.png"; // Default ship
+        this.shipImagePath = SpriteManager.PLAYER_SHIP; // Default ship
 
         loadImage();
         hitbox = new Rectangle(x, y, width, height);
+        savePosition();
     }
 
     private void loadImage() {
-        try {
-            image = ImageIO.read(getClass().getResourceAsStream(shipImagePath));
-        } catch (IOException e) {
-            System.out.println("Error loading image: " + shipImagePath);
-            e.printStackTrace();
-            // Try to load default ship if the specified image fails
-            try {
-                image = ImageIO.read(getClass().getResourceAsStream("/player/playership1.png"));
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            }
+        image = SpriteManager.get(shipImagePath);
+        if (image == null) {
+            // Fall back to the default ship if the specified image fails
+            image = SpriteManager.get(SpriteManager.PLAYER_SHIP);
         }
     }
 
@@ -52,12 +46,19 @@ public class OtherPlayer {
     }
 
     public void draw(Graphics2D g2) {
-        g2.drawImage(image, x, y, width, height, null);
+        int drawX = gp.interpolate(prevX, x);
+        int drawY = gp.interpolate(prevY, y);
+        g2.drawImage(image, drawX, drawY, width, height, null);
         
         // Draw username above the ship
         g2.setColor(Color.WHITE);
         g2.setFont(new Font("Arial", Font.PLAIN, 12));
-        g2.drawString(username, x + 8, y + height + 10);
+        g2.drawString(username, drawX + 8, drawY + height + 10);
+    }
+
+    public final void savePosition() {
+        prevX = x;
+        prevY = y;
     }
 
     public void setPosition(int x, int y) {
@@ -4,11 +4,11 @@ import game.GamePanel;
 import game.UI.KeyHandler;
 import game.UI.Ship;
 import game.managers.SoundManager;
+import game.managers.SpriteManager;
+import game.network.PlayerMotion;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 
 public class Player {
     private GamePanel gp;
@@ -16,6 +16,7 @@ public class Player {
 
     // Player position and stats
     private int x, y;
+    private int prevX, prevY; // Position at the start of the current tick, for drawing
     private int speed;
     private int maxHealth;
     private int width ;
@@ -27,10 +28,7 @@ public class Player {
     private Rectangle hitbox;
 
     // Shooting
-    private int shootCooldown = 0;
-    private final int shootCooldownMax = 15;
-    private long lastShootTime = 0;
-    private static final long SHOOT_DELAY = 200; // 200ms between shots
+    private int shootCooldown = 0; // Ticks until the next shot, so the fire rate never depends on wall time
 
     public Player(GamePanel gp, KeyHandler keyHandler) {
         this.gp = gp;
@@ -41,14 +39,11 @@ public class Player {
         height = gp.getTileSize();
         x = gp.getScreenWidth() / 2 - width / 2;
         y = gp.getScreenHeight() - height - 20;
+        savePosition();
 
 
         // Load player image
-        try {
-            image = ImageIO.read(getClass().getResourceAsStream("/player/playership1.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        image = SpriteManager.get(SpriteManager.PLAYER_SHIP);
 
         // Initialize hitbox
         hitbox = new Rectangle(x, y, width, height);
@@ -77,17 +72,24 @@ public class Player {
         hitbox.x = x;
         hitbox.y = y;
 
-        // Shooting with rate limiting
-        long currentTime = System.currentTimeMillis();
-        if (keyHandler.shootPressed && currentTime - lastShootTime >= SHOOT_DELAY) {
+        // Shooting with rate limiting, same rate as the server
+        if (shootCooldown > 0) {
+            shootCooldown--;
+        }
+        if (shootCooldown == 0 && keyHandler.shootPressed) {
             gp.getProjectileManager().addPlayerProjectile(x + width / 2, y);
             gp.getSoundManager().playSound(SoundManager.SHOOT_SOUND);
-            lastShootTime = currentTime;
+            shootCooldown = PlayerMotion.SHOOT_COOLDOWN;
         }
     }
 
     public void draw(Graphics2D g2) {
-        g2.drawImage(image, x, y, width, height, null);
+        g2.drawImage(image, gp.interpolate(prevX, x), gp.interpolate(prevY, y), width, height, null);
+    }
+
+    public final void savePosition() {
+        prevX = x;
+        prevY = y;
     }
 
     public Rectangle getHitbox() {
@@ -1,15 +1,15 @@
 package game.entities;
 
 import game.GamePanel;
+import game.managers.SpriteManager;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 
 public class Projectile {
     private GamePanel gp;
     protected int x, y;
+    private int prevX, prevY; // Position at the start of the current tick, for drawing
     protected int speed;
     private int width = 12;
     private int height = 24;
@@ -18,13 +18,29 @@ public class Projectile {
     protected Rectangle hitbox;
     private boolean active = true;
     private String shooterId;
+    private int networkId; // Server entity ID, 0 for local-only projectiles
+    private int syncGeneration; // Last snapshot that still contained us
 
     public Projectile(GamePanel gp, int x, int y, boolean isPlayerProjectile) {
+        this(gp);
+        reset(x, y, isPlayerProjectile);
+    }
+
+    // Blank projectile for a pool; reset() before use
+    public Projectile(GamePanel gp) {
         this.gp = gp;
+        hitbox = new Rectangle(0, 0, width, height);
+    }
+
+    // Re-fires this projectile from (x, y) as if it had just been constructed
+    public final void reset(int x, int y, boolean isPlayerProjectile) {
         this.x = x - width / 2;
         this.y = y;
         this.isPlayerProjectile = isPlayerProjectile;
-        
+        this.active = true;
+        this.networkId = 0;
+        this.syncGeneration = 0;
+
         // Handle shooter ID for both single-player and multiplayer modes
         if (isPlayerProjectile) {
             if (gp.isMultiplayer() && gp.getGameClient() != null && gp.getGameClient().isConnected()) {
@@ -36,19 +52,16 @@ public class Projectile {
             this.shooterId = "enemy";
         }
 
-        try {
-            if (isPlayerProjectile) {
-                image = ImageIO.read(getClass().getResourceAsStream("/projectile/playerprojectile.png"));
-                speed = -8;
-            } else {
-                image = ImageIO.read(getClass().getResourceAsStream("/projectile/enemyprojectile.png"));
-                speed = 5;
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (isPlayerProjectile) {
+            image = SpriteManager.get(SpriteManager.PLAYER_PROJECTILE);
+            speed = -8;
+        } else {
+            image = SpriteManager.get(SpriteManager.ENEMY_PROJECTILE);
+            speed = 5;
         }
 
-        hitbox = new Rectangle(x, y, width, height);
+        hitbox.setBounds(x, y, width, height);
+        savePosition();
     }
 
     public void update() {
@@ -62,7 +75,12 @@ public class Projectile {
     }
 
     public void draw(Graphics2D g2) {
-        g2.drawImage(image, x, y, width, height, null);
+        g2.drawImage(image, gp.interpolate(prevX, x), gp.interpolate(prevY, y), width, height, null);
+    }
+
+    public final void savePosition() {
+        prevX = x;
+        prevY = y;
     }
 
     public Rectangle getHitbox() { return hitbox; }
@@ -75,6 +93,10 @@ public class Projectile {
     public int getWidth() { return width; }
     public String getShooterId() { return shooterId; }
     public void setShooterId(String shooterId) { this.shooterId = shooterId; }
+    public int getNetworkId() { return networkId; }
+    public void setNetworkId(int networkId) { this.networkId = networkId; }
+    public int getSyncGeneration() { return syncGeneration; }
+    public void setSyncGeneration(int syncGeneration) { this.syncGeneration = syncGeneration; }
     public void setPosition(int x, int y) {
         this.x = x;
         this.y = y;
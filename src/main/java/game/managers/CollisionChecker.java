@@ -5,13 +5,17 @@ import game.entities.Enemy;
 import game.entities.Player;
 import game.entities.Projectile;
 
+import java.awt.*;
 import java.util.List;
 
 public class CollisionChecker {
     private GamePanel gp;
+    // Player shots by tile, rebuilt every check; enemies only test shots near them
+    private final SpatialGrid shotGrid;
 
     public CollisionChecker(GamePanel gp) {
         this.gp = gp;
+        this.shotGrid = new SpatialGrid(gp.getScreenWidth(), gp.getScreenHeight(), gp.getTileSize());
     }
 
     public void checkCollisions() {
@@ -19,19 +23,30 @@ public class CollisionChecker {
         EnemyManager enemyManager = gp.getEnemyManager();
         ProjectileManager projectileManager = gp.getProjectileManager();
         
-        // Get thread-safe copies of collections
+        // Projectiles are a live view, safe because collisions run on the game thread
         List<Projectile> projectiles = projectileManager.getProjectiles();
         List<Enemy> enemies = enemyManager.getEnemies();
 
-        // Check player-projectile collisions with enemies
-        for (Projectile projectile : projectiles) {
+        shotGrid.clear();
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile projectile = projectiles.get(i);
             if (projectile.isPlayerProjectile()) {
-                for (Enemy enemy : enemies) {
-                    if (projectile.getHitbox().intersects(enemy.getHitbox())) {
-                        enemy.takeDamage();
-                        projectile.setActive(false);
-                        break;
-                    }
+                Rectangle hitbox = projectile.getHitbox();
+                shotGrid.insert(i, hitbox.x, hitbox.y, hitbox.width, hitbox.height);
+            }
+        }
+
+        // Check player-projectile collisions with enemies. Enemies go in list
+        // order and a shot is spent on its first hit, so each shot still hits
+        // the first enemy it overlaps
+        for (Enemy enemy : enemies) {
+            Rectangle hitbox = enemy.getHitbox();
+            int candidates = shotGrid.query(hitbox.x, hitbox.y, hitbox.width, hitbox.height);
+            for (int i = 0; i < candidates; i++) {
+                Projectile projectile = projectiles.get(shotGrid.result(i));
+                if (projectile.isActive() && projectile.getHitbox().intersects(hitbox)) {
+                    enemy.takeDamage();
+                    projectile.setActive(false);
                 }
             }
         }
@@ -7,8 +7,11 @@ import game.network.GameState;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 public class EnemyManager {
     private GamePanel gp;
@@ -17,6 +20,11 @@ public class EnemyManager {
     private int spawnInterval = 60;
     private int level = 1;
     private int maxEnemies = 5;
+    private final Random random = new Random(); // All spawn randomness, so a seed replays a run
+
+    // Server enemies by network ID, updated in place from each snapshot
+    private final Map<Integer, Enemy> networkEnemies = new HashMap<>();
+    private int syncGeneration;
 
     public EnemyManager(GamePanel gp) {
         this.gp = gp;
@@ -50,13 +58,17 @@ public class EnemyManager {
     }
 
     private void spawnEnemy() {
-        int x = (int) (Math.random() * (gp.getScreenWidth() - 48));
-        int type = (int) (Math.random() * level) + 1;
+        int x = random.nextInt(gp.getScreenWidth() - 48);
+        int type = random.nextInt(level) + 1;
         synchronized (enemies) {
             enemies.add(new Enemy(gp, x, -48, type));
         }
     }
 
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
     public void draw(Graphics2D g2) {
         synchronized (enemies) {
             for (Enemy enemy : new ArrayList<>(enemies)) {
@@ -65,6 +77,15 @@ public class EnemyManager {
         }
     }
 
+    // Start of a game tick: positions from here on are drawn interpolated from these
+    public void savePositions() {
+        synchronized (enemies) {
+            for (Enemy enemy : enemies) {
+                enemy.savePosition();
+            }
+        }
+    }
+
     public List<Enemy> getEnemies() {
         synchronized (enemies) {
             return new ArrayList<>(enemies);
@@ -80,6 +101,7 @@ public class EnemyManager {
     public void clearEnemies() {
         synchronized (enemies) {
             enemies.clear();
+            networkEnemies.clear();
         }
     }
 
@@ -102,17 +124,33 @@ public class EnemyManager {
         }
     }
 
-    // Multiplayer synchronization
+    // Multiplayer synchronization: known enemies are moved, new IDs spawned and
+    // IDs the server no longer reports removed
     public void syncEnemies(List<GameState.EnemyState> enemyStates) {
         if (enemyStates == null) return;
         
         synchronized (enemies) {
-            // Clear existing enemies and recreate them from the synchronized state
-            enemies.clear();
-            
+            int generation = ++syncGeneration;
             for (GameState.EnemyState state : enemyStates) {
-                Enemy enemy = new Enemy(gp, state.getX(), state.getY(), state.getType());
-                enemies.add(enemy);
+                Enemy enemy = networkEnemies.get(state.getId());
+                if (enemy == null) {
+                    enemy = new Enemy(gp, state.getX(), state.getY(), state.getType());
+                    enemy.setNetworkId(state.getId());
+                    networkEnemies.put(state.getId(), enemy);
+                    enemies.add(enemy);
+                }
+                enemy.setPosition(state.getX(), state.getY());
+                enemy.setHealth(state.getHealth());
+                enemy.setSyncGeneration(generation);
+            }
+            
+            Iterator<Enemy> it = networkEnemies.values().iterator();
+            while (it.hasNext()) {
+                Enemy enemy = it.next();
+                if (enemy.getSyncGeneration() != generation) {
+                    it.remove();
+                    enemies.remove(enemy);
+                }
             }
         }
     }
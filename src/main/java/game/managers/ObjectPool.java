@@ -0,0 +1,52 @@
+package game.managers;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * Bounded free list of reusable objects. Callers reset what they acquire;
+ * the pool only stores them. Thread-safe, since explosions can be spawned by
+ * the network listener while the game loop recycles them.
+ */
+public class ObjectPool<T> {
+    private final ArrayDeque<T> free = new ArrayDeque<>();
+    private final Supplier<T> factory;
+    private final int maxSize;
+    private long hits;
+    private long misses;
+
+    public ObjectPool(Supplier<T> factory, int maxSize) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+    }
+
+    public synchronized T acquire() {
+        T object = free.poll();
+        if (object != null) {
+            hits++;
+            return object;
+        }
+        misses++;
+        return factory.get();
+    }
+
+    // Objects beyond maxSize are left to the GC, so a burst cannot pin memory forever
+    public synchronized void release(T object) {
+        if (free.size() < maxSize) {
+            free.push(object);
+        }
+    }
+
+    public synchronized void clear() {
+        free.clear();
+    }
+
+    public synchronized int getFreeCount() { return free.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -6,167 +6,254 @@ import game.entities.Projectile;
 import game.network.GameState;
 
 import java.awt.*;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ProjectileManager {
     private GamePanel gp;
-    private final CopyOnWriteArrayList<Projectile> projectiles;
-    private final CopyOnWriteArrayList<Explosion> explosions;
+    // Each guarded by its own lock, in no particular order. The render thread
+    // draws from arrays republished after each batch of changes instead
+    private final List<Projectile> projectiles;
+    private final List<Explosion> explosions;
+    private volatile Projectile[] renderProjectiles = new Projectile[0];
+    private volatile Explosion[] renderExplosions = new Explosion[0];
     private final Map<String, Long> lastProjectileUpdateTime;
-    private static final int SYNC_THRESHOLD = 100; // Distance threshold for syncing projectiles
+    private static final long PREDICTION_TIMEOUT = 1000; // ms until an unconfirmed shot is dropped
+    private static final int PROJECTILE_POOL_SIZE = 512;
+    private static final int EXPLOSION_POOL_SIZE = 64;
+
+    // Dead projectiles and explosions are reset and reused instead of reallocated
+    private final ObjectPool<Projectile> projectilePool;
+    private final ObjectPool<Explosion> explosionPool;
+
+    // Server projectiles by network ID, so a snapshot costs one lookup per projectile
+    private final Map<Integer, Projectile> networkProjectiles = new HashMap<>();
+    private int syncGeneration;
+
+    // Our own shots appear at once and keep flying locally; each joins the
+    // registry once the server's projectile shows up, and leaves with it
+    private final ArrayDeque<Projectile> unconfirmedPredictions = new ArrayDeque<>();
+    private final ArrayDeque<Long> predictionTimes = new ArrayDeque<>();
 
     public ProjectileManager(GamePanel gp) {
         this.gp = gp;
-        projectiles = new CopyOnWriteArrayList<>();
-        explosions = new CopyOnWriteArrayList<>();
+        projectiles = new ArrayList<>();
+        explosions = new ArrayList<>();
         lastProjectileUpdateTime = new ConcurrentHashMap<>();
+        projectilePool = new ObjectPool<>(() -> new Projectile(gp), PROJECTILE_POOL_SIZE);
+        explosionPool = new ObjectPool<>(() -> new Explosion(gp), EXPLOSION_POOL_SIZE);
     }
 
     public void update() {
-        // Update and remove inactive projectiles
-        for (Projectile projectile : projectiles) {
-            projectile.update();
-            if (!projectile.isActive()) {
-                projectiles.remove(projectile);
+        synchronized (projectiles) {
+            // Update and remove inactive projectiles, filling each gap with the last one
+            int i = 0;
+            while (i < projectiles.size()) {
+                Projectile projectile = projectiles.get(i);
+                projectile.update();
+                if (projectile.isActive()) {
+                    i++;
+                    continue;
+                }
+                swapRemove(projectiles, i);
+                // Server projectiles and unconfirmed shots are recycled by syncProjectiles
+                if (projectile.getNetworkId() == 0 && !unconfirmedPredictions.contains(projectile)) {
+                    projectilePool.release(projectile);
+                }
             }
+            publishProjectiles();
         }
 
-        // Update and remove finished explosions
-        for (Explosion explosion : explosions) {
-            explosion.update();
-            if (explosion.isFinished()) {
-                explosions.remove(explosion);
+        synchronized (explosions) {
+            // Update and remove finished explosions
+            int i = 0;
+            while (i < explosions.size()) {
+                Explosion explosion = explosions.get(i);
+                explosion.update();
+                if (!explosion.isFinished()) {
+                    i++;
+                    continue;
+                }
+                swapRemove(explosions, i);
+                explosionPool.release(explosion);
+            }
+            publishExplosions();
+        }
+    }
+
+    // Start of a game tick: positions from here on are drawn interpolated from these
+    public void savePositions() {
+        synchronized (projectiles) {
+            for (Projectile projectile : projectiles) {
+                projectile.savePosition();
             }
         }
     }
 
     public void draw(Graphics2D g2) {
         // Draw projectiles
-        for (Projectile projectile : projectiles) {
+        for (Projectile projectile : renderProjectiles) {
             projectile.draw(g2);
         }
 
         // Draw explosions
-        for (Explosion explosion : explosions) {
+        for (Explosion explosion : renderExplosions) {
             explosion.draw(g2);
         }
     }
 
-    public void addPlayerProjectile(int x, int y) {
-        if (!gp.isMultiplayer() || gp.getGameClient() == null) {
-        projectiles.add(new Projectile(gp, x, y, true));
-            return;
-        }
+    // O(1) removal; the last element takes the removed one's slot
+    private static <T> void swapRemove(List<T> list, int index) {
+        int last = list.size() - 1;
+        list.set(index, list.get(last));
+        list.remove(last);
+    }
+
+    // Callers hold the list's lock
+    private void publishProjectiles() {
+        renderProjectiles = projectiles.toArray(new Projectile[0]);
+    }
 
-        Projectile projectile = new Projectile(gp, x, y, true);
-        projectile.setShooterId(gp.getGameClient().getClientId());
-        projectiles.add(projectile);
-        System.out.println("Added player projectile with ID: " + projectile.getShooterId());
+    private void publishExplosions() {
+        renderExplosions = explosions.toArray(new Explosion[0]);
+    }
+
+    // Local simulation only; in multiplayer the server spawns every projectile
+    public void addPlayerProjectile(int x, int y) {
+        addProjectile(obtainProjectile(x, y, true));
     }
 
     public void addEnemyProjectile(int x, int y) {
-        if (!gp.isMultiplayer() || gp.getGameClient() == null) {
-        projectiles.add(new Projectile(gp, x, y, false));
-            return;
-        }
+        addProjectile(obtainProjectile(x, y, false));
+    }
 
-        // In multiplayer, only the host creates enemy projectiles
-        if (gp.getGameClient().isHost()) {
-            Projectile projectile = new Projectile(gp, x, y, false);
-            projectile.setShooterId("enemy_" + gp.getGameClient().getClientId());
+    // Multiplayer: our shot, drawn before the server has confirmed it
+    public void addPredictedProjectile(int x, int y) {
+        Projectile projectile = obtainProjectile(x, y, true);
+        addProjectile(projectile);
+        unconfirmedPredictions.offer(projectile);
+        predictionTimes.offer(System.currentTimeMillis());
+    }
+
+    // New shots are drawn from the next update on, once per frame however many are fired
+    private void addProjectile(Projectile projectile) {
+        synchronized (projectiles) {
             projectiles.add(projectile);
-            System.out.println("Host added enemy projectile");
         }
     }
 
     public void addExplosion(int x, int y) {
-        explosions.add(new Explosion(gp, x, y));
+        Explosion explosion = explosionPool.acquire();
+        explosion.reset(x, y);
+        synchronized (explosions) {
+            explosions.add(explosion);
+        }
+    }
+
+    private Projectile obtainProjectile(int x, int y, boolean isPlayerProjectile) {
+        Projectile projectile = projectilePool.acquire();
+        projectile.reset(x, y, isPlayerProjectile);
+        return projectile;
     }
 
     public void clearProjectiles() {
-        projectiles.clear();
+        synchronized (projectiles) {
+            projectiles.clear();
+            networkProjectiles.clear();
+            unconfirmedPredictions.clear();
+            predictionTimes.clear();
+            publishProjectiles();
+        }
     }
 
     public void clearExplosions() {
-        explosions.clear();
+        synchronized (explosions) {
+            explosions.clear();
+            publishExplosions();
+        }
     }
 
+    public double getProjectilePoolHitRate() { return projectilePool.getHitRate(); }
+    public double getExplosionPoolHitRate() { return explosionPool.getHitRate(); }
+
+    // Live view for the game thread, e.g. collision checks; do not hold on to it
     public List<Projectile> getProjectiles() {
-        return new ArrayList<>(projectiles);
+        return Collections.unmodifiableList(projectiles);
     }
 
-    // Improved multiplayer synchronization
-    public void syncProjectiles(List<GameState.ProjectileState> projectileStates, String clientId) {
+    // Multiplayer synchronization: mirror the server's projectiles by network ID.
+    // Known ones are moved, new ones spawned and missing ones removed; shots
+    // fired by localShooterId adopt our predicted projectiles instead.
+    public void syncProjectiles(List<GameState.ProjectileState> projectileStates, String localShooterId) {
         if (projectileStates == null) return;
-        
-        long currentTime = System.currentTimeMillis();
-        System.out.println("Syncing " + projectileStates.size() + " projectiles");
-
-        // Create a list of projectiles to add
-        List<Projectile> newProjectiles = new ArrayList<>();
-        
-        // Process each projectile state
-        for (GameState.ProjectileState state : projectileStates) {
-            String shooterId = state.getShooterId();
-            
-            // Skip our own projectiles
-            if (clientId.equals(shooterId)) {
-                continue;
-    }
-
-            // Handle enemy projectiles
-            boolean isEnemyProjectile = shooterId.startsWith("enemy_");
-            if (isEnemyProjectile && !gp.getGameClient().isHost()) {
-                System.out.println("Processing enemy projectile from host");
-            } else if (!isEnemyProjectile) {
-                System.out.println("Processing player projectile from: " + shooterId);
-            }
 
-            // Find existing projectile or prepare to create new one
-            boolean found = false;
-            for (Projectile projectile : projectiles) {
-                if (shooterId.equals(projectile.getShooterId()) &&
-                    Math.abs(projectile.getX() - state.getX()) < SYNC_THRESHOLD &&
-                    Math.abs(projectile.getY() - state.getY()) < SYNC_THRESHOLD) {
-                    
-                    // Update existing projectile with smoother interpolation
-                    int deltaX = state.getX() - projectile.getX();
-                    int deltaY = state.getY() - projectile.getY();
-                    projectile.setPosition(
-                        projectile.getX() + (deltaX / 3),
-                        projectile.getY() + (deltaY / 3)
-                    );
-                    found = true;
-                    break;
+        synchronized (projectiles) {
+            syncProjectilesLocked(projectileStates, localShooterId);
+            publishProjectiles();
+        }
+    }
+
+    private void syncProjectilesLocked(List<GameState.ProjectileState> projectileStates, String localShooterId) {
+        int generation = ++syncGeneration;
+        List<Projectile> spawned = new ArrayList<>();
+        for (GameState.ProjectileState state : projectileStates) {
+            boolean own = state.getShooterId().equals(localShooterId);
+            Projectile projectile = networkProjectiles.get(state.getId());
+            if (projectile == null) {
+                // Shots are fired in order, so the oldest unconfirmed prediction is this one
+                projectile = own ? unconfirmedPredictions.poll() : null;
+                if (projectile != null) {
+                    predictionTimes.poll();
+                } else {
+                    projectile = obtainProjectile(state.getX(), state.getY(), state.isPlayerProjectile());
+                    projectile.setShooterId(state.getShooterId());
+                    projectile.setPosition(state.getX(), state.getY());
+                    projectile.savePosition();
+                    spawned.add(projectile);
                 }
+                projectile.setNetworkId(state.getId());
+                networkProjectiles.put(state.getId(), projectile);
+            } else if (!own) {
+                projectile.setPosition(state.getX(), state.getY());
             }
+            projectile.setSyncGeneration(generation);
+        }
 
-            // Create new projectile if not found
-            if (!found) {
-                Projectile newProjectile = new Projectile(gp, state.getX(), state.getY(), state.isPlayerProjectile());
-                newProjectile.setShooterId(shooterId);
-                newProjectiles.add(newProjectile);
-                System.out.println("Created new " + (state.isPlayerProjectile() ? "player" : "enemy") + 
-                                 " projectile for shooter: " + shooterId);
+        // Projectiles the server no longer reports have hit something or left the screen
+        Set<Projectile> despawned = new HashSet<>();
+        Iterator<Projectile> it = networkProjectiles.values().iterator();
+        while (it.hasNext()) {
+            Projectile projectile = it.next();
+            if (projectile.getSyncGeneration() != generation) {
+                despawned.add(projectile);
+                it.remove();
             }
         }
-        
-        // Add all new projectiles at once
-        projectiles.addAll(newProjectiles);
-
-        // Clean up inactive projectiles
-        projectiles.removeIf(p -> {
-            boolean shouldRemove = !p.isActive() && 
-                                 (p.getY() < -p.getHeight() * 2 || p.getY() > gp.getScreenHeight() + p.getHeight() * 2);
-            if (shouldRemove) {
-                System.out.println("Removing inactive " + (p.isPlayerProjectile() ? "player" : "enemy") + 
-                                 " projectile from shooter: " + p.getShooterId());
+
+        // Predicted shots the server never fired, e.g. the input was lost
+        long now = System.currentTimeMillis();
+        while (!predictionTimes.isEmpty() && now - predictionTimes.peek() > PREDICTION_TIMEOUT) {
+            despawned.add(unconfirmedPredictions.poll());
+            predictionTimes.poll();
+        }
+
+        // One pass over the list, however many changed
+        if (!despawned.isEmpty()) {
+            projectiles.removeIf(despawned::contains);
+            for (Projectile projectile : despawned) {
+                projectilePool.release(projectile);
             }
-            return shouldRemove;
-        });
+        }
+        if (!spawned.isEmpty()) {
+            projectiles.addAll(spawned);
+        }
     }
-}
\ No newline at end of file
+}
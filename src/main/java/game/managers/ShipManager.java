@@ -1,6 +1,7 @@
 package game.managers;
 
 import game.UI.Ship;
+import game.network.ShipStats;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,28 +15,11 @@ public class ShipManager {
     }
 
     private void initializeShips() {
-        // Add all ships with their stats and image paths
-        availableShips.add(new Ship(
-                "Flash",
-                6,  // speed
-                2,  // health
-                "/player/playership1.png"  // Path in resources folder
-        ));
-
-        availableShips.add(new Ship(
-                "Titan",
-                3,  // slower but tankier
-                5,
-                "/player/playership2.png"
-        ));
-
-        availableShips.add(new Ship(
-                "Balance",
-                4,  // balanced
-                3,
-                "/player/playership3.png"
-        ));
+        // Same stats the server uses, so the choice means the same in multiplayer
+        for (ShipStats stats : ShipStats.all()) {
+            availableShips.add(new Ship(stats.getName(), stats.getSpeed(), stats.getHealth(), stats.getImagePath()));
+        }
     }
 
     public List<Ship> getAvailableShips() { return availableShips; }
-}
\ No newline at end of file
+}
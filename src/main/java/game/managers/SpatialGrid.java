@@ -0,0 +1,157 @@
+package game.managers;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid broad phase for collision checks. Items are plain int indices
+ * into the caller's own list or arrays, filed under the cell holding the
+ * top-left corner of their bounding box; queries widen their search by the
+ * largest item inserted, so each item is found at most once. Boxes outside
+ * the grid are clamped to its border cells, which keeps queries conservative.
+ * <p>
+ * Rebuilt from scratch each tick: {@link #clear()}, then {@link #insert} every
+ * item, then query. The first query after inserting sorts items by cell in one
+ * counting pass, so a cell's items sit next to each other in a single array.
+ * Allocation-free once its buffers have grown to the working set.
+ * <p>
+ * Not thread-safe while inserting. Once {@link #prepare()} has run, any number
+ * of threads may query at once, each with its own {@link Results}.
+ */
+public class SpatialGrid {
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStarts;
+    private int maxItemWidth;
+    private int maxItemHeight;
+
+    // Items in insertion order, then grouped by cell
+    private int[] items = new int[64];
+    private int[] itemCells = new int[64];
+    private int[] sortedItems = new int[64];
+    private int itemCount;
+    private boolean sorted;
+
+    private final Results results = new Results();
+
+    public SpatialGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.cellStarts = new int[columns * rows + 1];
+    }
+
+    public void clear() {
+        itemCount = 0;
+        maxItemWidth = 0;
+        maxItemHeight = 0;
+        sorted = false;
+    }
+
+    public void insert(int item, int x, int y, int width, int height) {
+        if (itemCount == items.length) {
+            items = Arrays.copyOf(items, itemCount * 2);
+            itemCells = Arrays.copyOf(itemCells, itemCount * 2);
+            sortedItems = new int[itemCount * 2];
+        }
+        maxItemWidth = Math.max(maxItemWidth, width);
+        maxItemHeight = Math.max(maxItemHeight, height);
+        items[itemCount] = item;
+        itemCells[itemCount] = row(y) * columns + column(x);
+        itemCount++;
+        sorted = false;
+    }
+
+    // Groups the inserted items by cell; queries do this on demand otherwise
+    public void prepare() {
+        if (!sorted) {
+            sortByCell();
+        }
+    }
+
+    /**
+     * Collects the items that may overlap the given box, in no particular
+     * order, and returns how many there are; read them with
+     * {@link #result(int)} before the next query.
+     */
+    public int query(int x, int y, int width, int height) {
+        prepare();
+        return query(x, y, width, height, results);
+    }
+
+    public int result(int index) {
+        return results.get(index);
+    }
+
+    /**
+     * Same as {@link #query(int, int, int, int)} but into the caller's own
+     * buffer, so prepared grids can be queried from several threads.
+     */
+    public int query(int x, int y, int width, int height, Results into) {
+        into.count = 0;
+        if (itemCount == 0) return 0;
+
+        // An item can only overlap if its corner lies up to one item size above or left of us
+        int minColumn = column(x - maxItemWidth + 1);
+        int maxColumn = column(x + width - 1);
+        int minRow = row(y - maxItemHeight + 1);
+        int maxRow = row(y + height - 1);
+        for (int r = minRow; r <= maxRow; r++) {
+            // Cells of a row are adjacent, so each row is one contiguous run
+            int from = cellStarts[r * columns + minColumn];
+            int to = cellStarts[r * columns + maxColumn + 1];
+            int count = to - from;
+            if (count == 0) continue;
+            into.ensureCapacity(into.count + count);
+            System.arraycopy(sortedItems, from, into.items, into.count, count);
+            into.count += count;
+        }
+        return into.count;
+    }
+
+    // Counting sort: cellStarts[c] ends up as the index of cell c's first item
+    private void sortByCell() {
+        Arrays.fill(cellStarts, 0);
+        for (int i = 0; i < itemCount; i++) {
+            cellStarts[itemCells[i] + 1]++;
+        }
+        for (int c = 1; c < cellStarts.length; c++) {
+            cellStarts[c] += cellStarts[c - 1];
+        }
+        for (int i = 0; i < itemCount; i++) {
+            sortedItems[cellStarts[itemCells[i]]++] = items[i];
+        }
+        // The fill pass moved each start to the next cell's; shift them back
+        System.arraycopy(cellStarts, 0, cellStarts, 1, cellStarts.length - 1);
+        cellStarts[0] = 0;
+        sorted = true;
+    }
+
+    private int column(int x) {
+        return Math.min(columns - 1, Math.max(0, Math.floorDiv(x, cellSize)));
+    }
+
+    private int row(int y) {
+        return Math.min(rows - 1, Math.max(0, Math.floorDiv(y, cellSize)));
+    }
+
+    /** Reusable output of a query; one per querying thread. */
+    public static final class Results {
+        private int[] items = new int[16];
+        private int count;
+
+        public int get(int index) {
+            return items[index];
+        }
+
+        public int size() {
+            return count;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > items.length) {
+                items = Arrays.copyOf(items, Math.max(items.length * 2, capacity));
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package game.managers;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes each sprite once and hands the same image to every entity that
+ * draws it, so spawning a projectile or an explosion never touches the
+ * classpath. Images are converted to the screen's native format so drawing
+ * them needs no per-frame pixel conversion.
+ */
+public final class SpriteManager {
+    public static final String PLAYER_SHIP = "/player/playership1.png";
+    public static final String HEART = "/player/heart.png";
+    public static final String BACKGROUND = "/background/space.png";
+    public static final String PLAYER_PROJECTILE = "/projectile/playerprojectile.png";
+    public static final String ENEMY_PROJECTILE = "/projectile/enemyprojectile.png";
+    public static final String[] ENEMY_SHIPS = {
+            "/enemy/enemyship1.png",
+            "/enemy/enemyship2.png",
+            "/enemy/enemyship3.png"
+    };
+    public static final String[] EXPLOSION_FRAMES = {
+            "/explosion/explosion1.png",
+            "/explosion/explosion2.png",
+            "/explosion/explosion3.png"
+    };
+
+    private static final String[] PLAYER_SHIPS = {
+            "/player/playership1.png",
+            "/player/playership2.png",
+            "/player/playership3.png"
+    };
+
+    private static final Map<String, BufferedImage> sprites = new ConcurrentHashMap<>();
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private SpriteManager() {
+    }
+
+    // Called once at startup so gameplay never waits on a decode
+    public static void preload() {
+        get(PLAYER_SHIP);
+        get(HEART);
+        get(BACKGROUND);
+        get(PLAYER_PROJECTILE);
+        get(ENEMY_PROJECTILE);
+        for (String path : ENEMY_SHIPS) get(path);
+        for (String path : EXPLOSION_FRAMES) get(path);
+        for (String path : PLAYER_SHIPS) get(path);
+    }
+
+    /**
+     * Returns the shared image for a resource path, loading it on first use.
+     * Returns null if the resource is missing or unreadable. Callers must not
+     * draw into the returned image.
+     */
+    public static BufferedImage get(String path) {
+        BufferedImage sprite = sprites.computeIfAbsent(path, SpriteManager::load);
+        return sprite == MISSING ? null : sprite;
+    }
+
+    private static BufferedImage load(String path) {
+        try (InputStream in = SpriteManager.class.getResourceAsStream(path)) {
+            if (in == null) {
+                System.err.println("Missing sprite: " + path);
+                return MISSING;
+            }
+            BufferedImage image = ImageIO.read(in);
+            return image != null ? toCompatible(image) : MISSING;
+        } catch (IOException e) {
+            System.err.println("Error loading sprite: " + path);
+            e.printStackTrace();
+            return MISSING;
+        }
+    }
+
+    private static BufferedImage toCompatible(BufferedImage image) {
+        if (GraphicsEnvironment.isHeadless()) return image;
+
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        if (image.getColorModel().equals(config.getColorModel(image.getTransparency()))) return image;
+
+        BufferedImage compatible = config.createCompatibleImage(image.getWidth(), image.getHeight(),
+                image.getTransparency());
+        Graphics2D g2 = compatible.createGraphics();
+        g2.drawImage(image, 0, 0, null);
+        g2.dispose();
+        return compatible;
+    }
+}
@@ -0,0 +1,92 @@
+package game.network;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Thread-per-connection client using plain blocking socket streams. Meant to
+ * run on a virtual thread (see {@link GameServer.TransportMode#VIRTUAL_THREADS}),
+ * where a blocked read only parks the virtual thread instead of pinning a
+ * platform thread per player. A second virtual thread writes, so a client that
+ * stops reading never blocks the server tick.
+ */
+public class BlockingClientHandler extends ClientHandler implements Runnable {
+    private final Socket socket;
+    private DataInputStream in;
+    private DataOutputStream out;
+    private volatile boolean running = true;
+    private final Semaphore outboundReady = new Semaphore(0);
+
+    public BlockingClientHandler(GameServer server, Socket socket) {
+        super(server);
+        this.socket = socket;
+    }
+
+    @Override
+    public void run() {
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            Thread.ofVirtual().name("game-writer-" + getId()).start(this::writeLoop);
+            server.addClient(getId(), this);
+
+            while (running) {
+                handleMessage(codec.read(in));
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.out.println("Client " + getId() + " connection error: " + e.getMessage());
+            }
+        } finally {
+            disconnect();
+        }
+    }
+
+    // Wakes the writer; blocking on the socket only ever parks that thread
+    @Override
+    protected void onOutboundReady() {
+        outboundReady.release();
+    }
+
+    private void writeLoop() {
+        try {
+            while (running) {
+                outboundReady.acquire();
+                outboundReady.drainPermits();
+
+                ByteBuffer frame;
+                while (running && (frame = nextFrame()) != null) {
+                    out.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.out.println("Client " + getId() + " write error: " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            disconnect();
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        if (!running) return;
+        running = false;
+        outboundReady.release(); // Let the writer see that we stopped
+        server.removeClient(getId());
+        try {
+            socket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
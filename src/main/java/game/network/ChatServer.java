@@ -20,6 +20,8 @@ public class ChatServer {
     private boolean running = false;
     private ServerSocket serverSocket;
     private ExecutorService threadPool;
+    // Run each connection on a virtual thread instead of a pooled platform thread
+    private boolean useVirtualThreads = Boolean.getBoolean("game.virtualThreads");
     
     private ChatServer() {
         // Private constructor for singleton
@@ -37,7 +39,9 @@ public class ChatServer {
         
         try {
             serverSocket = new ServerSocket(PORT);
-            threadPool = Executors.newCachedThreadPool();
+            threadPool = useVirtualThreads
+                    ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newCachedThreadPool();
             running = true;
             System.out.println("Chat Server started on port " + PORT);
             
@@ -75,6 +79,11 @@ public class ChatServer {
         }
     }
     
+    // Takes effect on the next start()
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+    
     private void broadcast(ChatMessage message) {
         // Log the message for debugging
         System.out.println("Broadcasting message: " + message.getSenderName() + ": " + message.getMessage());
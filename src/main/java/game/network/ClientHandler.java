@@ -0,0 +1,180 @@
+package game.network;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server-side protocol state of one connected client, independent of how its
+ * bytes are moved. Decoded messages are handed to {@link GameServer}.
+ * <p>
+ * Outgoing traffic is only queued by the tick thread. Events wait in a bounded
+ * queue; snapshots share a single slot, so a client that falls behind skips
+ * to the newest one instead of building a backlog. The transport's writer
+ * pulls frames through {@link #nextFrame()}, which delta-encodes snapshots
+ * against the client's last acknowledged tick, or sends them as datagrams once
+ * the client has opened its UDP channel.
+ */
+public abstract class ClientHandler {
+    // Older acks are not trusted as a delta baseline; must stay below the
+    // history the client keeps (GameStateCodec.BASELINE_HISTORY)
+    private static final int MAX_BASELINE_AGE = 32;
+    // Larger snapshots go over TCP rather than risk IP fragmentation
+    private static final int MAX_DATAGRAM_SIZE = 1200;
+    private static final int FRAME_HEADER_SIZE = 4;
+    // Events cannot be skipped; a client this far behind is dropped instead
+    static final int MAX_PENDING_MESSAGES = 1024;
+
+    protected final GameServer server;
+    protected final GameStateCodec codec = new GameStateCodec();
+    private final GameStateCodec datagramCodec = codec.forDatagrams();
+    private final String id;
+    private final int udpToken;
+    private volatile SocketAddress udpAddress; // Known once the client's first datagram arrived
+    private volatile GameRoom room; // Chosen once per connection, see RoomMessage
+    private volatile String playerId; // Set once the client has joined the simulation
+    private volatile int ackedTick; // Latest snapshot the client confirmed, 0 = none
+    private final AtomicInteger lastInputSequence = new AtomicInteger();
+    private final GameState[] sentStates = new GameState[GameStateCodec.BASELINE_HISTORY];
+
+    // Outbound queue, filled by the tick thread and drained by the writer
+    private final Queue<Object> pendingMessages = new ArrayBlockingQueue<>(MAX_PENDING_MESSAGES);
+    private final AtomicReference<GameState> pendingState = new AtomicReference<>();
+    private final AtomicLong skippedStates = new AtomicLong();
+
+    protected ClientHandler(GameServer server) {
+        this.server = server;
+        this.id = UUID.randomUUID().toString();
+        this.udpToken = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+    }
+
+    protected void handleMessage(Object message) {
+        if (message instanceof PlayerInput) {
+            PlayerInput input = (PlayerInput) message;
+            // Inputs may arrive late or twice over UDP; only ever move forward
+            if (lastInputSequence.getAndAccumulate(input.getSequence(), Math::max) >= input.getSequence()) return;
+            if (playerId != null) {
+                server.handleInput(this, input);
+            }
+        } else if (message instanceof SnapshotAck) {
+            ackedTick = Math.max(ackedTick, ((SnapshotAck) message).getTick());
+        } else if (message instanceof RoomMessage) {
+            server.handleRoomRequest(this, (RoomMessage) message);
+        } else if (message instanceof JoinRequest) {
+            JoinRequest join = (JoinRequest) message;
+            // Our player is always this connection, whatever ID the client claims
+            if (server.handleJoin(this, join)) {
+                playerId = id;
+                System.out.println("Player joined: " + join.getUsername() + " (" + playerId + ")");
+            }
+        }
+    }
+
+    // Called by the server's UDP thread for every datagram carrying our token
+    void handleDatagram(SocketAddress sender, ByteBuffer body) throws IOException {
+        udpAddress = sender;
+        handleMessage(datagramCodec.decode(body));
+    }
+
+    public void sendHello(int udpPort) {
+        queueMessage(new ServerHello(id, udpToken, udpPort));
+    }
+
+    public void sendRoomMessage(RoomMessage message) {
+        queueMessage(message);
+    }
+
+    // Events always take the reliable connection
+    public void sendEvent(GameEvent event) {
+        queueMessage(event);
+    }
+
+    // Replaces a snapshot the writer has not picked up yet
+    public void sendState(GameState state) {
+        if (pendingState.getAndSet(state) != null) {
+            skippedStates.incrementAndGet();
+        }
+        onOutboundReady();
+    }
+
+    private void queueMessage(Object message) {
+        if (!pendingMessages.offer(message)) {
+            System.out.println("Client " + id + " is too far behind, dropping it");
+            pendingMessages.clear(); // Nothing will be written any more
+            disconnect();
+            return;
+        }
+        onOutboundReady();
+    }
+
+    /**
+     * Writer thread: encodes the next queued message, events before the
+     * pending snapshot. Returns null once nothing is left for the stream. The
+     * buffer belongs to the codec and stays valid until the next call.
+     */
+    protected ByteBuffer nextFrame() {
+        Object message = pendingMessages.poll();
+        if (message != null) {
+            return codec.encode(message);
+        }
+        GameState state = pendingState.getAndSet(null);
+        if (state == null) return null;
+
+        ByteBuffer frame = encodeState(state);
+        return frame != null ? frame : nextFrame();
+    }
+
+    protected boolean hasPendingOutput() {
+        return !pendingMessages.isEmpty() || pendingState.get() != null;
+    }
+
+    // Returns the TCP frame, or null if the snapshot went out as a datagram
+    private ByteBuffer encodeState(GameState state) {
+        // Delta against the last snapshot this client acknowledged
+        GameState baseline = null;
+        int acked = ackedTick;
+        if (acked > 0 && state.getTick() - acked <= MAX_BASELINE_AGE) {
+            GameState candidate = sentStates[acked % sentStates.length];
+            if (candidate != null && candidate.getTick() == acked) {
+                baseline = candidate;
+            }
+        }
+        sentStates[state.getTick() % sentStates.length] = state;
+
+        // Prefer the unreliable channel once the client has proven it can reach us
+        SocketAddress address = udpAddress;
+        if (address != null) {
+            ByteBuffer frame = datagramCodec.encodeState(state, baseline);
+            if (frame.remaining() - FRAME_HEADER_SIZE <= MAX_DATAGRAM_SIZE) {
+                frame.putInt(0, udpToken); // Datagrams carry the token where frames carry the length
+                server.sendDatagram(frame, address);
+                return null;
+            }
+        }
+        return codec.encodeState(state, baseline);
+    }
+
+    /**
+     * Called from any thread when output was queued; the transport should
+     * make its writer call {@link #nextFrame()} until it returns null.
+     */
+    protected abstract void onOutboundReady();
+
+    public abstract void disconnect();
+
+    public String getId() { return id; }
+    public int getUdpToken() { return udpToken; }
+    public String getPlayerId() { return playerId; }
+    GameRoom getRoom() { return room; }
+    void setRoom(GameRoom room) { this.room = room; }
+    // Messages waiting for the writer, counting the pending snapshot
+    public int getQueueDepth() { return pendingMessages.size() + (pendingState.get() != null ? 1 : 0); }
+    public long getSkippedStates() { return skippedStates.get(); }
+}
@@ -0,0 +1,49 @@
+package game.network;
+
+/**
+ * Sideways movement patterns of enemies, shared by {@link ServerSimulation}
+ * and the single-player enemies. Offsets come from tables filled with
+ * StrictMath, whose results are specified bit for bit, so every JVM and CPU
+ * moves enemies the same way; Math.sin may differ in the last bit between
+ * platforms, which is enough to split two runs of the same match.
+ */
+public final class EnemyMotion {
+    public static final int STRAIGHT = 0;
+    public static final int SINE = 1;   // Zigzag, 2 px either way
+    public static final int COSINE = 2; // Zigzag, 3 px either way
+
+    // Enemies leave the screen long before this many ticks; later ones are computed
+    private static final int TABLE_SIZE = 1024;
+    private static final int[] SINE_OFFSETS = new int[TABLE_SIZE];
+    private static final int[] COSINE_OFFSETS = new int[TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            SINE_OFFSETS[i] = sineOffset(i);
+            COSINE_OFFSETS[i] = cosineOffset(i);
+        }
+    }
+
+    private EnemyMotion() {
+    }
+
+    // Horizontal move of an enemy with the given pattern on its counter-th tick
+    public static int sway(int pattern, int counter) {
+        switch (pattern) {
+            case SINE:
+                return counter >= 0 && counter < TABLE_SIZE ? SINE_OFFSETS[counter] : sineOffset(counter);
+            case COSINE:
+                return counter >= 0 && counter < TABLE_SIZE ? COSINE_OFFSETS[counter] : cosineOffset(counter);
+            default:
+                return 0;
+        }
+    }
+
+    private static int sineOffset(int counter) {
+        return (int) (StrictMath.sin(counter * 0.1) * 2);
+    }
+
+    private static int cosineOffset(int counter) {
+        return (int) (StrictMath.cos(counter * 0.1) * 3);
+    }
+}
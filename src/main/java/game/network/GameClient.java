@@ -1,52 +1,79 @@
 package game.network;
 
 import game.GamePanel;
-import game.entities.Enemy;
+import game.UI.KeyHandler;
+import game.UI.Ship;
 import game.entities.OtherPlayer;
 import game.entities.Player;
-import game.entities.Projectile;
+import game.managers.SoundManager;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class GameClient {
     private static String SERVER_IP = "localhost";
     private static final int SERVER_PORT = 5000;
     private static final int RECONNECT_DELAY = 1000; // 1 second
     private static final int MAX_RECONNECT_ATTEMPTS = 3;
-    private static final long UPDATE_INTERVAL = 16; // ~60 updates per second
-    private static final int STATE_BUFFER_SIZE = 10;
+    private static final int DEFAULT_RENDER_DELAY = 100; // ms, about six server ticks
+    private static final int MAX_PENDING_INPUTS = 120; // Two seconds of unacknowledged inputs
+    private static final int MAX_DATAGRAM_SIZE = 2048;
+    private static boolean useUdp = true;
+    private static String roomId; // null plays in the server's default room
+    private static int renderDelay = DEFAULT_RENDER_DELAY;
+    private static Path replayDirectory; // Each connection records a replay file here when set
     
     private Socket socket;
-    private ObjectInputStream in;
-    private ObjectOutputStream out;
-    private String clientId;
+    private DataInputStream in;
+    private DataOutputStream out;
+    private GameStateCodec codec;
+    private volatile String clientId; // Ours until the server's hello assigns the real one
     private GamePanel gamePanel;
     private volatile boolean connected;
     private Thread listenThread;
-    private Thread updateThread;
     private boolean isHost;
     private int reconnectAttempts = 0;
     
-    // State interpolation
-    private final Queue<GameState> stateBuffer;
-    private GameState previousState;
-    private GameState targetState;
-    private float interpolationAlpha = 0;
-    private long lastUpdateTime;
+    // Optional UDP channel for snapshots, inputs and acks (events stay on TCP)
+    private DatagramSocket udpSocket;
+    private GameStateCodec datagramCodec;
+    private int udpToken;
+    private volatile boolean udpConfirmed; // Server datagrams reach us, so ours reach it too
+    
+    // Authoritative server state
+    private int inputSequence = 0;
+    private boolean joined = false;
+    private volatile boolean awaitingSpawn = true;
+    private int latestTick; // Newest snapshot applied; older ones are dropped
+    
+    // Our ship is predicted locally and corrected from every snapshot
+    private final ArrayDeque<PlayerInput> pendingInputs = new ArrayDeque<>();
+    private int shipSpeed;
+    private int shootCooldown;
+    
+    // Remote entities are drawn slightly in the past, between two snapshots
+    private final InterpolationBuffer interpolationBuffer;
+    
+    // Snapshots, events and our own inputs of this connection, if recording
+    private volatile ReplayRecorder recorder;
     
     public GameClient(GamePanel gamePanel) {
         this.gamePanel = gamePanel;
         this.clientId = UUID.randomUUID().toString();
-        this.stateBuffer = new ConcurrentLinkedQueue<>();
-        this.lastUpdateTime = System.currentTimeMillis();
+        this.interpolationBuffer = new InterpolationBuffer(renderDelay);
     }
     
     public synchronized void connect() {
@@ -54,18 +81,30 @@ public class GameClient {
         
         try {
             socket = new Socket(SERVER_IP, SERVER_PORT);
-            out = new ObjectOutputStream(socket.getOutputStream());
-            in = new ObjectInputStream(socket.getInputStream());
+            socket.setTcpNoDelay(true);
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            codec = new GameStateCodec(); // Intern tables are per connection
             connected = true;
+            joined = false;
+            udpConfirmed = false;
+            latestTick = 0;
+            interpolationBuffer.clear(); // Ticks restart with the room
+            interpolationBuffer.setRenderDelay(renderDelay);
             reconnectAttempts = 0;
+            if (replayDirectory != null) {
+                startRecording(replayDirectory.resolve("client-" + clientId + "-" + System.currentTimeMillis() + ".replay"));
+            }
             
             // Start listening for server updates
             listenThread = new Thread(this::listenForUpdates);
             listenThread.setDaemon(true); // Make thread daemon so it doesn't prevent JVM shutdown
             listenThread.start();
             
-            // Start update thread
-            startUpdateThread();
+            // Pick the room before our first input spawns us; the host opens it
+            if (roomId != null) {
+                codec.write(out, new RoomMessage(isHost ? RoomMessage.CREATE : RoomMessage.JOIN, roomId));
+            }
             
             System.out.println("Connected to server with ID: " + clientId);
         } catch (IOException e) {
@@ -75,6 +114,15 @@ public class GameClient {
         }
     }
     
+    private void startRecording(Path file) {
+        try {
+            recorder = new ReplayRecorder(file);
+            System.out.println("Recording match to " + file);
+        } catch (IOException e) {
+            System.out.println("Cannot record match: " + e.getMessage());
+        }
+    }
+    
     private void tryReconnect() {
         if (reconnectAttempts >= MAX_RECONNECT_ATTEMPTS) {
             System.out.println("Max reconnection attempts reached");
@@ -94,10 +142,18 @@ public class GameClient {
     
     public synchronized void disconnect() {
         connected = false;
+        if (recorder != null) {
+            recorder.close();
+            recorder = null;
+        }
         try {
             if (listenThread != null) {
                 listenThread.interrupt();
             }
+            if (udpSocket != null) {
+                udpSocket.close();
+                udpSocket = null;
+            }
             if (out != null) {
                 out.close();
             }
@@ -115,216 +171,295 @@ public class GameClient {
     private void listenForUpdates() {
         while (connected && !Thread.currentThread().isInterrupted()) {
             try {
-                GameState state = (GameState) in.readObject();
-                if (state != null) {
-                    updateGameState(state);
+                Object message = codec.read(in);
+                if (message instanceof GameState) {
+                    applySnapshot((GameState) message);
+                } else if (message instanceof GameEvent) {
+                    handleEvent((GameEvent) message);
+                } else if (message instanceof ServerHello) {
+                    ServerHello hello = (ServerHello) message;
+                    clientId = hello.getPlayerId(); // Snapshots and events name us by this
+                    openUdpChannel(hello);
+                } else if (message instanceof RoomMessage) {
+                    RoomMessage room = (RoomMessage) message;
+                    if (room.getAction() == RoomMessage.JOINED) {
+                        System.out.println("Joined room: " + room.getRoomId());
+                    } else {
+                        System.out.println("Room unavailable: " + room.getRoomId());
+                    }
                 }
             } catch (IOException e) {
                 System.out.println("Lost connection to server: " + e.getMessage());
                 handleDisconnect();
                 break;
-            } catch (ClassNotFoundException e) {
-                e.printStackTrace();
-                break;
             }
         }
     }
     
-    private void startUpdateThread() {
-        updateThread = new Thread(() -> {
-            while (connected && !Thread.currentThread().isInterrupted()) {
-                long currentTime = System.currentTimeMillis();
-                long deltaTime = currentTime - lastUpdateTime;
-                
-                if (deltaTime >= UPDATE_INTERVAL) {
-                    sendGameState();
-                    lastUpdateTime = currentTime;
-                }
-                
-                interpolateStates();
+    private void openUdpChannel(ServerHello hello) throws IOException {
+        if (!useUdp || hello.getUdpPort() <= 0) return;
+        
+        udpSocket = new DatagramSocket();
+        udpSocket.connect(InetAddress.getByName(SERVER_IP), hello.getUdpPort());
+        udpToken = hello.getUdpToken();
+        datagramCodec = codec.forDatagrams();
+        
+        DatagramSocket socket = udpSocket;
+        Thread udpThread = new Thread(() -> listenForDatagrams(socket));
+        udpThread.setDaemon(true);
+        udpThread.start();
+        
+        // Tell the server where to send snapshots
+        sendDatagram(new SnapshotAck(latestTick));
+    }
+    
+    private void listenForDatagrams(DatagramSocket socket) {
+        byte[] data = new byte[MAX_DATAGRAM_SIZE];
+        DatagramPacket packet = new DatagramPacket(data, data.length);
+        while (connected && !socket.isClosed()) {
+            try {
+                packet.setLength(data.length);
+                socket.receive(packet);
+                if (packet.getLength() < 4) continue;
                 
-                try {
-                    Thread.sleep(1); // Prevent thread from hogging CPU
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+                // Skip the token, the rest is a regular frame body
+                ByteBuffer body = ByteBuffer.wrap(data, 4, packet.getLength() - 4);
+                Object message = datagramCodec.decode(body);
+                if (message instanceof GameState) {
+                    udpConfirmed = true;
+                    applySnapshot((GameState) message);
                 }
+            } catch (IOException e) {
+                // Lost baseline or closed socket; TCP still carries everything reliable
+                if (socket.isClosed()) break;
             }
-        });
-        updateThread.setDaemon(true);
-        updateThread.start();
+        }
     }
     
-    private void interpolateStates() {
-        if (previousState == null || targetState == null) {
-            if (!stateBuffer.isEmpty()) {
-                targetState = stateBuffer.poll();
-                previousState = targetState;
-            }
-            return;
+    // Snapshots can arrive out of order over UDP; only ever move forward
+    private synchronized void applySnapshot(GameState state) throws IOException {
+        if (state.getTick() <= latestTick) return;
+        latestTick = state.getTick();
+        if (recorder != null) {
+            recorder.recordState(state);
         }
-        
-        interpolationAlpha += 0.1f; // Adjust this value to control interpolation speed
-        
-        if (interpolationAlpha >= 1.0f) {
-            previousState = targetState;
-            targetState = stateBuffer.poll();
-            interpolationAlpha = 0;
-            return;
+        updateGameState(state);
+        sendAck(state.getTick());
+    }
+    
+    private synchronized void handleEvent(GameEvent event) {
+        if (recorder != null) {
+            recorder.recordEvent(latestTick, event);
         }
-        
-        if (targetState != null && previousState != null) {
-            // Interpolate position
-            int interpolatedX = (int) lerp(previousState.getPlayerX(), targetState.getPlayerX(), interpolationAlpha);
-            int interpolatedY = (int) lerp(previousState.getPlayerY(), targetState.getPlayerY(), interpolationAlpha);
-            
-            // Update game state with interpolated values
-            gamePanel.updateOtherPlayer(targetState.getPlayerId(), interpolatedX, interpolatedY);
+        boolean own = clientId.equals(event.getPlayerId());
+        switch (event.getType()) {
+            case GameEvent.ENEMY_DESTROYED:
+                gamePanel.getProjectileManager().addExplosion(event.getX(), event.getY());
+                gamePanel.getSoundManager().playSound(SoundManager.EXPLOSION_SOUND);
+                break;
+            case GameEvent.ENEMY_HIT:
+                gamePanel.getSoundManager().playSound(SoundManager.HIT_SOUND);
+                break;
+            case GameEvent.PLAYER_HIT:
+                if (own) {
+                    gamePanel.getSoundManager().playSound(SoundManager.HIT_SOUND);
+                }
+                break;
+            case GameEvent.PLAYER_DIED:
+                gamePanel.getProjectileManager().addExplosion(event.getX(), event.getY());
+                gamePanel.getSoundManager().playSound(SoundManager.EXPLOSION_SOUND);
+                if (own && !gamePanel.isGameOver()) {
+                    gamePanel.gameOver();
+                }
+                break;
+            case GameEvent.PLAYER_JOINED:
+                if (!own && !gamePanel.getOtherPlayers().containsKey(event.getPlayerId())) {
+                    gamePanel.addOtherPlayer(event.getPlayerId());
+                }
+                break;
+            case GameEvent.PLAYER_LEFT:
+                gamePanel.removeOtherPlayer(event.getPlayerId());
+                break;
         }
     }
     
-    private float lerp(float start, float end, float alpha) {
-        return start + alpha * (end - start);
+    /**
+     * Game loop: moves remote players, enemies and projectiles to where the
+     * server had them one render delay ago, interpolated between snapshots.
+     */
+    public void applyInterpolatedState() {
+        GameState state = interpolationBuffer.sample();
+        if (state == null) return;
+        
+        for (GameState.PlayerState playerState : state.getPlayers()) {
+            if (!playerState.getPlayerId().equals(clientId)) {
+                gamePanel.updateOtherPlayer(playerState.getPlayerId(), playerState.getX(), playerState.getY());
+            }
+        }
+        gamePanel.getEnemyManager().syncEnemies(state.getEnemies());
+        gamePanel.getProjectileManager().syncProjectiles(state.getProjectiles(), clientId);
     }
     
     private synchronized void updateGameState(GameState state) {
-        if (!connected || state == null || state.getPlayerId().equals(clientId)) return;
+        if (!connected || state == null) return;
         
         try {
-            // Add state to buffer instead of immediately applying
-            if (stateBuffer.size() >= STATE_BUFFER_SIZE) {
-                stateBuffer.poll(); // Remove oldest state if buffer is full
-            }
-            stateBuffer.offer(state);
-            
-            // Extract player info
-            String playerId = state.getPlayerId();
-            String username = state.getUsername();
-            String shipPath = state.getShipImagePath();
-            
-            // Add other player if they don't exist yet
-            if (!gamePanel.getOtherPlayers().containsKey(playerId)) {
-                gamePanel.addOtherPlayer(playerId);
-            }
+            // Remote entities are positioned per frame from the buffer
+            interpolationBuffer.add(state);
             
-            // Update the player info
-            OtherPlayer otherPlayer = gamePanel.getOtherPlayers().get(playerId);
-            if (otherPlayer != null) {
-                // Update username if available
-                if (username != null) {
-                    otherPlayer.setUsername(username);
+            // Add or refresh the other players, drop the ones that left
+            List<String> departed = new ArrayList<>(gamePanel.getOtherPlayers().keySet());
+            for (GameState.PlayerState playerState : state.getPlayers()) {
+                String playerId = playerState.getPlayerId();
+                if (playerId.equals(clientId)) {
+                    applyOwnState(playerState);
+                    continue;
                 }
+                departed.remove(playerId);
                 
-                // Update ship image if available
-                if (shipPath != null) {
-                    otherPlayer.setShipImagePath(shipPath);
+                if (!gamePanel.getOtherPlayers().containsKey(playerId)) {
+                    gamePanel.addOtherPlayer(playerId);
+                }
+                OtherPlayer otherPlayer = gamePanel.getOtherPlayers().get(playerId);
+                if (otherPlayer != null) {
+                    otherPlayer.setUsername(playerState.getUsername());
+                    otherPlayer.setShipImagePath(playerState.getShipImagePath());
                 }
             }
-            
-            // Handle non-interpolated updates
-            if (!isHost && state.getEnemies() != null) {
-                gamePanel.getEnemyManager().clearEnemies();
-                gamePanel.getEnemyManager().syncEnemies(state.getEnemies());
+            for (String playerId : departed) {
+                gamePanel.removeOtherPlayer(playerId);
             }
             
-            // Handle projectile synchronization
-            if (state.getProjectiles() != null) {
-                // Keep all projectiles from other players and enemy projectiles from host
-                List<GameState.ProjectileState> validProjectiles = state.getProjectiles().stream()
-                    .filter(p -> {
-                        String shooterId = p.getShooterId();
-                        boolean isEnemyProjectile = shooterId != null && shooterId.startsWith("enemy_");
-                        // Accept projectiles that are:
-                        // 1. From other players (not our own)
-                        // 2. Enemy projectiles from host (for non-host players)
-                        return !clientId.equals(shooterId) && // Not our own projectiles
-                               ((!isHost && isEnemyProjectile) || // Non-host should see enemy projectiles
-                                !isEnemyProjectile); // Everyone sees player projectiles
-                    })
-                    .toList();
-                
-                if (!validProjectiles.isEmpty()) {
-                    System.out.println("Received " + validProjectiles.size() + " projectiles from network");
-                    gamePanel.getProjectileManager().syncProjectiles(validProjectiles, clientId);
-                }
-            }
+            gamePanel.setLevel(state.getLevel());
         } catch (Exception e) {
             System.out.println("Error updating game state: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
-    public synchronized void sendGameState() {
-        if (!connected || gamePanel == null) return;
+    private void applyOwnState(GameState.PlayerState playerState) {
+        Player player = gamePanel.getPlayer();
+        
+        // Ignore our previous (dead) ship until the server has respawned us
+        if (awaitingSpawn) {
+            if (playerState.getLives() <= 0) return;
+            awaitingSpawn = false;
+        }
+        
+        // Start from the server's position after the inputs it has applied,
+        // then replay the ones still in flight
+        while (!pendingInputs.isEmpty() && pendingInputs.peek().getSequence() <= playerState.getLastInput()) {
+            pendingInputs.poll();
+        }
+        int x = playerState.getX();
+        int y = playerState.getY();
+        for (PlayerInput input : pendingInputs) {
+            x = PlayerMotion.moveX(x, input.getButtons(), shipSpeed);
+            y = PlayerMotion.moveY(y, input.getButtons(), shipSpeed);
+        }
+        player.setX(x);
+        player.setY(y);
+        
+        // Hits and death arrive as reliable events, see handleEvent
+        player.setlives(playerState.getLives());
+        gamePanel.setPlayerLives(playerState.getLives());
+        gamePanel.setScore(playerState.getScore());
+    }
+    
+    /**
+     * Sends this frame's controls to the server. The first call after
+     * connecting (or after {@link #rejoin()}) also spawns our ship there.
+     */
+    public synchronized void sendInput(boolean acceptControls) {
+        if (!connected || gamePanel == null || out == null) return;
         
         try {
-            GameState state = new GameState(clientId);
-            Player player = gamePanel.getPlayer();
-            if (player == null) return;
-            
-            // Update player state
-            state.setPlayerPosition(player.getX(), player.getY());
-            state.setLives(player.getLives());
-            state.setScore(gamePanel.getScore());
-            state.setLevel(gamePanel.getLevel());
-            
-            // Set username (use current user from game panel)
-            state.setUsername(gamePanel.getCurrentUser());
-            
-            // Update ship image path
-            if (player.getImage() != null && gamePanel.getSelectedShip() != null) {
-                state.setShipImagePath(gamePanel.getSelectedShip().getImagePath());
+            if (!joined) {
+                Ship ship = gamePanel.getSelectedShip();
+                if (ship == null) return;
+                awaitingSpawn = true;
+                codec.write(out, new JoinRequest(clientId, gamePanel.getCurrentUser(),
+                        ship.getImagePath(), ship.getSpeed(), ship.getHealth()));
+                joined = true;
+                shipSpeed = ship.getSpeed();
+                shootCooldown = 0;
+                pendingInputs.clear();
             }
             
-            // Only host sends enemy states
-            if (isHost) {
-                List<GameState.EnemyState> enemyStates = new ArrayList<>();
-                for (Enemy enemy : gamePanel.getEnemyManager().getEnemies()) {
-                    if (enemy != null) {
-                        enemyStates.add(new GameState.EnemyState(
-                            enemy.getX(),
-                            enemy.getY(),
-                            enemy.getType(),
-                            enemy.getHealth()
-                        ));
-                    }
-                }
-                state.setEnemies(enemyStates);
+            int buttons = 0;
+            if (acceptControls) {
+                KeyHandler keys = gamePanel.getKeyHandler();
+                if (keys.upPressed) buttons |= PlayerInput.UP;
+                if (keys.downPressed) buttons |= PlayerInput.DOWN;
+                if (keys.leftPressed) buttons |= PlayerInput.LEFT;
+                if (keys.rightPressed) buttons |= PlayerInput.RIGHT;
+                if (keys.shootPressed) buttons |= PlayerInput.SHOOT;
             }
-            
-            // Update projectile states
-            List<GameState.ProjectileState> projectileStates = new ArrayList<>();
-            for (Projectile projectile : gamePanel.getProjectileManager().getProjectiles()) {
-                if (projectile != null && projectile.isActive()) {
-                    // Only send projectiles that we own (our player projectiles or, if host, enemy projectiles)
-                    String shooterId = projectile.getShooterId();
-                    if (clientId.equals(shooterId) || 
-                        (isHost && shooterId != null && shooterId.startsWith("enemy_"))) {
-                        projectileStates.add(new GameState.ProjectileState(
-                            projectile.getX(),
-                            projectile.getY(),
-                            projectile.isPlayerProjectile(),
-                            shooterId
-                        ));
-                    }
-                }
+            PlayerInput input = new PlayerInput(++inputSequence, buttons);
+            if (recorder != null) {
+                recorder.recordInput(latestTick, clientId, input);
             }
-            state.setProjectiles(projectileStates);
-            
-            // Send state to server
-            if (out != null) {
-                out.writeObject(state);
-                out.reset(); // Reset the object stream to prevent memory leaks
-                out.flush();
+            if (udpConfirmed) {
+                sendDatagram(input);
+            } else {
+                codec.write(out, input);
             }
+            predict(input);
         } catch (IOException e) {
-            System.out.println("Failed to send game state: " + e.getMessage());
+            System.out.println("Failed to send input: " + e.getMessage());
             handleDisconnect();
-        } catch (Exception e) {
-            System.out.println("Unexpected error sending game state: " + e.getMessage());
-            e.printStackTrace();
         }
     }
     
+    // Applies our input right away instead of a round trip later; the server
+    // runs the same PlayerMotion step when it gets there
+    private void predict(PlayerInput input) {
+        if (pendingInputs.size() >= MAX_PENDING_INPUTS) {
+            pendingInputs.poll();
+        }
+        pendingInputs.offer(input);
+        if (awaitingSpawn) return;
+        
+        Player player = gamePanel.getPlayer();
+        int buttons = input.getButtons();
+        player.setX(PlayerMotion.moveX(player.getX(), buttons, shipSpeed));
+        player.setY(PlayerMotion.moveY(player.getY(), buttons, shipSpeed));
+        
+        if (shootCooldown > 0) {
+            shootCooldown--;
+        }
+        if (shootCooldown == 0 && (buttons & PlayerInput.SHOOT) != 0) {
+            gamePanel.getProjectileManager().addPredictedProjectile(player.getX() + PlayerMotion.SHIP_SIZE / 2, player.getY());
+            gamePanel.getSoundManager().playSound(SoundManager.SHOOT_SOUND);
+            shootCooldown = PlayerMotion.SHOOT_COOLDOWN;
+        }
+    }
+    
+    // Lets the server send the following snapshots as deltas against this one
+    private synchronized void sendAck(int tick) throws IOException {
+        if (!connected || out == null) return;
+        if (udpConfirmed) {
+            sendDatagram(new SnapshotAck(tick));
+        } else {
+            codec.write(out, new SnapshotAck(tick));
+            if (udpSocket != null) {
+                sendDatagram(new SnapshotAck(tick)); // Keep offering UDP until the server uses it
+            }
+        }
+    }
+    
+    // Token in place of the frame length, then the frame body
+    private synchronized void sendDatagram(Object message) throws IOException {
+        ByteBuffer frame = datagramCodec.encode(message);
+        frame.putInt(0, udpToken);
+        udpSocket.send(new DatagramPacket(frame.array(), frame.arrayOffset(), frame.limit()));
+    }
+    
+    // Respawn our ship on the server, e.g. after restarting from game over
+    public synchronized void rejoin() {
+        joined = false;
+    }
+    
     private void handleDisconnect() {
         System.out.println("Handling disconnect for client: " + clientId);
         disconnect();
@@ -353,4 +488,12 @@ public class GameClient {
     public boolean isHost() { return isHost; }
     public void setHost(boolean isHost) { this.isHost = isHost; }
     public static void setServerIP(String ip) { SERVER_IP = ip; }
+    // Takes effect on the next connect()
+    public static void setRoomId(String id) { roomId = id; }
+    // How far behind the server remote entities are drawn; more hides more jitter
+    public static void setRenderDelay(int millis) { renderDelay = millis; }
+    // Takes effect on the next connect(); without it everything goes over TCP
+    public static void setUseUdp(boolean enabled) { useUdp = enabled; }
+    // Takes effect on the next connect(); null stops recording
+    public static void setReplayDirectory(Path directory) { replayDirectory = directory; }
 } 
\ No newline at end of file
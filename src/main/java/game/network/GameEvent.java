@@ -0,0 +1,34 @@
+package game.network;
+
+/**
+ * Discrete gameplay event produced by the server simulation. Unlike snapshots,
+ * events are always delivered over the reliable TCP connection.
+ */
+public class GameEvent {
+    public static final int ENEMY_DESTROYED = 1; // x, y = explosion, playerId = shooter (null if rammed), value = points
+    public static final int PLAYER_HIT = 2;      // playerId, value = lives left
+    public static final int PLAYER_DIED = 3;     // playerId, x, y = explosion, value = final score
+    public static final int PLAYER_JOINED = 4;   // playerId
+    public static final int PLAYER_LEFT = 5;     // playerId
+    public static final int ENEMY_HIT = 6;       // x, y = enemy centre, playerId = shooter, value = health left
+
+    private final int type;
+    private final String playerId;
+    private final int x;
+    private final int y;
+    private final int value;
+
+    public GameEvent(int type, String playerId, int x, int y, int value) {
+        this.type = type;
+        this.playerId = playerId;
+        this.x = x;
+        this.y = y;
+        this.value = value;
+    }
+
+    public int getType() { return type; }
+    public String getPlayerId() { return playerId; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getValue() { return value; }
+}
@@ -0,0 +1,148 @@
+package game.network;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One match hosted by a {@link GameServer}, with its own clients, simulation
+ * and tick. Rooms share the server's worker pool; a periodic task never
+ * overlaps with itself, so each room's simulation is still only touched by
+ * one thread at a time.
+ */
+public class GameRoom {
+    public static final int MAX_CLIENTS = 8; // For rooms players create
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final String id;
+    private final int maxClients;
+    private final GameWorld simulation = new ServerSimulation();
+    private final Queue<Runnable> pendingActions = new ConcurrentLinkedQueue<>();
+    private final Map<String, ClientHandler> clients = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> tickTask;
+    private boolean closed;
+    private volatile ReplayRecorder recorder; // Set when the room's match is being recorded
+    private int lastTick; // Tick thread only: the latest snapshot's tick
+
+    GameRoom(String id, int maxClients) {
+        this.id = id;
+        this.maxClients = maxClients;
+    }
+
+    void start(ScheduledExecutorService workers, long tickInterval) {
+        tickTask = workers.scheduleAtFixedRate(this::update, 0, tickInterval, TimeUnit.MILLISECONDS);
+    }
+
+    // Guarded by the server: rooms are filled and closed under its lock
+    boolean addClient(ClientHandler handler) {
+        if (closed || clients.size() >= maxClients) return false;
+        clients.put(handler.getId(), handler);
+        return true;
+    }
+
+    void removeClient(ClientHandler handler) {
+        if (clients.remove(handler.getId()) == null) return;
+
+        String playerId = handler.getPlayerId();
+        if (playerId != null) {
+            pendingActions.offer(() -> simulation.removePlayer(playerId));
+        }
+    }
+
+    void startRecording(Path file) {
+        try {
+            recorder = new ReplayRecorder(file);
+            System.out.println("Recording room " + id + " to " + file);
+        } catch (IOException e) {
+            System.out.println("Cannot record room " + id + ": " + e.getMessage());
+        }
+    }
+
+    void close() {
+        closed = true;
+        if (tickTask != null) {
+            tickTask.cancel(false);
+        }
+        ReplayRecorder replay = recorder;
+        if (replay != null) {
+            recorder = null;
+            // The writer thread flushes the last block; we may be on the event loop, under the server lock
+            replay.finish();
+        }
+    }
+
+    void handleJoin(JoinRequest join) {
+        pendingActions.offer(() -> simulation.addPlayer(join));
+    }
+
+    void handleInput(String playerId, PlayerInput input) {
+        pendingActions.offer(() -> {
+            simulation.applyInput(playerId, input);
+            ReplayRecorder replay = recorder;
+            if (replay != null) {
+                replay.recordInput(lastTick + 1, playerId, input); // Used by the coming step
+            }
+        });
+    }
+
+    private void update() {
+        try {
+            // Apply joins, inputs and leaves received since the last tick
+            Runnable action;
+            while ((action = pendingActions.poll()) != null) {
+                action.run();
+            }
+
+            GameState state = null;
+            if (simulation.hasPlayers()) {
+                simulation.step();
+                state = simulation.snapshot();
+                lastTick = state.getTick();
+            }
+            List<GameEvent> events = simulation.drainEvents();
+            record(events, state);
+            broadcast(events, state);
+        } catch (Exception e) {
+            // Never let an exception cancel the fixed-rate schedule
+            System.out.println("Error in tick of room " + id + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void record(List<GameEvent> events, GameState state) {
+        ReplayRecorder replay = recorder;
+        if (replay == null) return;
+        if (state != null) {
+            replay.recordState(state);
+        }
+        for (GameEvent event : events) {
+            replay.recordEvent(lastTick, event);
+        }
+    }
+
+    // Reliable events first, then the tick's snapshot (null when nobody is playing).
+    // Only queues: each client's writer sends at whatever pace its link allows
+    private void broadcast(List<GameEvent> events, GameState state) {
+        if (events.isEmpty() && state == null) return;
+
+        for (ClientHandler client : clients.values()) {
+            for (GameEvent event : events) {
+                client.sendEvent(event);
+            }
+            if (state != null) {
+                client.sendState(state);
+            }
+        }
+    }
+
+    public String getId() { return id; }
+    public int getClientCount() { return clients.size(); }
+    public boolean isEmpty() { return clients.isEmpty(); }
+}
@@ -1,27 +1,70 @@
 package game.network;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 
+/**
+ * Game server process. Connections are accepted on one port and sorted into
+ * {@link GameRoom}s, each an independent match; many rooms run side by side on
+ * a shared pool of tick workers.
+ */
 public class GameServer {
-    private static final int PORT = 5000;
-    private static final long UPDATE_INTERVAL = 16; // ~60 updates per second
+    /**
+     * How client connections are served. SELECTOR multiplexes every socket over
+     * a few NIO event loops; VIRTUAL_THREADS keeps blocking stream I/O with one
+     * virtual thread per client. Defaults to SELECTOR unless the JVM is started
+     * with -Dgame.virtualThreads=true.
+     */
+    public enum TransportMode { SELECTOR, VIRTUAL_THREADS }
+
+    public static final String DEFAULT_ROOM = "main";
+
+    public static final int DEFAULT_PORT = 5000;
+    private static final int UDP_PORT_OFFSET = 2; // Datagrams go to the TCP port + 2
+    private static final int MAX_DATAGRAM_SIZE = 2048;
+    private static final long UPDATE_INTERVAL = ServerSimulation.TICK_MILLIS; // ~60 updates per second
+    // A few selector threads serve every connection
+    private static final int EVENT_LOOP_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    // Room ticks are short, a small shared pool runs dozens of rooms
+    private static final int ROOM_WORKER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int MAX_ROOMS = 256;
+    private static final long STATUS_INTERVAL_SECONDS = 10;
+    private TransportMode transportMode;
+    private int port = DEFAULT_PORT;
+    private volatile Path replayDirectory; // Rooms record replays here when set
+    private ServerSocketChannel serverChannel;
+    private NioEventLoop[] eventLoops;
+    private int nextEventLoop;
     private ServerSocket serverSocket;
+    private ExecutorService connectionExecutor;
+    private DatagramChannel udpChannel;
+    private Selector udpSelector;
+    private final ConcurrentHashMap<Integer, ClientHandler> udpClients;
     private volatile boolean running;
     private ConcurrentHashMap<String, ClientHandler> clients;
-    private List<GameState> gameStates;
     private static GameServer instance;
-    private ScheduledExecutorService updateExecutor;
+    private ScheduledExecutorService roomWorkers;
+    private final ConcurrentHashMap<String, GameRoom> rooms;
 
     private GameServer() {
         clients = new ConcurrentHashMap<>();
-        gameStates = Collections.synchronizedList(new ArrayList<>());
-        updateExecutor = Executors.newSingleThreadScheduledExecutor();
+        rooms = new ConcurrentHashMap<>();
+        udpClients = new ConcurrentHashMap<>();
+        transportMode = Boolean.getBoolean("game.virtualThreads") ? TransportMode.VIRTUAL_THREADS : TransportMode.SELECTOR;
     }
 
     public static synchronized GameServer getInstance() {
@@ -31,176 +74,319 @@ public class GameServer {
         return instance;
     }
 
-    public void start() {
+    public synchronized void start() {
         if (running) return;
-        
+
         try {
-            serverSocket = new ServerSocket(PORT);
+            if (transportMode == TransportMode.VIRTUAL_THREADS) {
+                startBlockingTransport();
+            } else {
+                startSelectorTransport();
+            }
+            startUdpChannel();
+
             running = true;
-            System.out.println("Server started on port " + PORT);
-
-            // Start the update scheduler
-            updateExecutor.scheduleAtFixedRate(this::update, 0, UPDATE_INTERVAL, TimeUnit.MILLISECONDS);
-
-            // Accept client connections in a separate thread
-            new Thread(() -> {
-                while (running) {
-                    try {
-                        Socket clientSocket = serverSocket.accept();
-                        ClientHandler clientHandler = new ClientHandler(clientSocket, this);
-                        new Thread(clientHandler).start();
-                    } catch (IOException e) {
-                        if (running) {
-                            e.printStackTrace();
+            roomWorkers = Executors.newScheduledThreadPool(ROOM_WORKER_THREADS);
+            roomWorkers.scheduleAtFixedRate(this::logStatus, STATUS_INTERVAL_SECONDS, STATUS_INTERVAL_SECONDS,
+                    TimeUnit.SECONDS);
+            // Everyone who doesn't pick a room plays here, so it has no cap
+            openRoom(DEFAULT_ROOM, GameRoom.UNLIMITED);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void startSelectorTransport() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+
+        // Start the selector threads; the first one also accepts connections
+        eventLoops = new NioEventLoop[EVENT_LOOP_THREADS];
+        for (int i = 0; i < eventLoops.length; i++) {
+            eventLoops[i] = new NioEventLoop(this);
+            Thread loopThread = new Thread(eventLoops[i], "game-io-" + i);
+            loopThread.setDaemon(true);
+            loopThread.start();
+        }
+        eventLoops[0].registerAcceptor(serverChannel);
+        System.out.println("Server started on port " + port + " with " + eventLoops.length + " I/O threads");
+    }
+
+    private void startBlockingTransport() throws IOException {
+        serverSocket = new ServerSocket(port);
+        connectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        System.out.println("Server started on port " + port + " with virtual-thread connections");
+
+        // Accept client connections in a separate thread
+        connectionExecutor.execute(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket clientSocket = serverSocket.accept();
+                    clientSocket.setTcpNoDelay(true);
+                    connectionExecutor.execute(new BlockingClientHandler(this, clientSocket));
+                } catch (IOException e) {
+                    if (running) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        });
+    }
+
+    // Optional unreliable channel for snapshots, inputs and acks
+    private void startUdpChannel() {
+        try {
+            udpChannel = DatagramChannel.open();
+            udpChannel.bind(new InetSocketAddress(getUdpPort()));
+            udpChannel.configureBlocking(false); // Sends drop instead of stalling a writer
+            udpSelector = Selector.open();
+            udpChannel.register(udpSelector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            System.out.println("UDP channel unavailable, clients stay on TCP: " + e.getMessage());
+            udpChannel = null;
+            return;
+        }
+
+        DatagramChannel channel = udpChannel;
+        Selector selector = udpSelector;
+        Thread udpThread = new Thread(() -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+            try {
+                while (channel.isOpen()) {
+                    selector.select();
+                    selector.selectedKeys().clear();
+
+                    SocketAddress sender;
+                    while ((sender = receive(channel, buffer)) != null) {
+                        if (buffer.remaining() < 4) continue;
+                        ClientHandler handler = udpClients.get(buffer.getInt());
+                        if (handler == null) continue;
+                        try {
+                            handler.handleDatagram(sender, buffer);
+                        } catch (IOException e) {
+                            // Malformed or stale datagram: drop it, the next one will do
                         }
                     }
                 }
-            }).start();
+            } catch (IOException | ClosedSelectorException e) {
+                if (running) {
+                    e.printStackTrace();
+                }
+            }
+        }, "game-udp");
+        udpThread.setDaemon(true);
+        udpThread.start();
+        System.out.println("UDP channel open on port " + getUdpPort());
+    }
+
+    private static SocketAddress receive(DatagramChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        SocketAddress sender = channel.receive(buffer);
+        buffer.flip();
+        return sender;
+    }
+
+    // Best effort: a full socket buffer simply drops the snapshot
+    void sendDatagram(ByteBuffer datagram, SocketAddress address) {
+        DatagramChannel channel = udpChannel;
+        if (channel == null) return;
+        try {
+            channel.send(datagram, address);
         } catch (IOException e) {
-            e.printStackTrace();
+            // Lost like any other datagram; the next snapshot supersedes it
+        }
+    }
+
+    // Called on the accepting event loop for every new connection
+    void accept(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+        // Spread connections over the selector threads
+        NioEventLoop loop = eventLoops[nextEventLoop++ % eventLoops.length];
+        NioClientHandler handler = new NioClientHandler(this, channel, loop);
+        addClient(handler.getId(), handler);
+        loop.register(handler);
+    }
+
+    private GameRoom openRoom(String roomId, int maxClients) {
+        GameRoom room = new GameRoom(roomId, maxClients);
+        Path directory = replayDirectory;
+        if (directory != null) {
+            room.startRecording(directory.resolve("room-" + roomId + "-" + System.currentTimeMillis() + ".replay"));
+        }
+        rooms.put(roomId, room);
+        room.start(roomWorkers, UPDATE_INTERVAL);
+        System.out.println("Room opened: " + roomId + " (Total rooms: " + rooms.size() + ")");
+        return room;
+    }
+
+    // CREATE or JOIN from a client that is not in a room yet
+    synchronized void handleRoomRequest(ClientHandler handler, RoomMessage request) {
+        String roomId = request.getRoomId();
+        GameRoom room = null;
+        if (handler.getRoom() == null && running) {
+            if (request.getAction() == RoomMessage.CREATE) {
+                if (roomId == null) {
+                    roomId = UUID.randomUUID().toString().substring(0, 8);
+                }
+                if (!rooms.containsKey(roomId) && rooms.size() < MAX_ROOMS) {
+                    room = openRoom(roomId, GameRoom.MAX_CLIENTS);
+                }
+            } else if (request.getAction() == RoomMessage.JOIN && roomId != null) {
+                room = rooms.get(roomId);
+            }
+        }
+
+        if (room != null && room.addClient(handler)) {
+            handler.setRoom(room);
+            handler.sendRoomMessage(new RoomMessage(RoomMessage.JOINED, roomId));
+        } else {
+            handler.sendRoomMessage(new RoomMessage(RoomMessage.REJECTED, roomId));
         }
     }
 
-    private void update() {
-        // Process any pending game states and broadcast updates
-        synchronized (gameStates) {
-            if (!gameStates.isEmpty()) {
-                GameState latestState = gameStates.get(gameStates.size() - 1);
-                broadcastState(latestState.getPlayerId(), latestState);
-                gameStates.clear();
+    // Players that spawn without choosing a room play in the default one.
+    // The client only picks its name and ship: the player ID is the connection's
+    // and the stats are the ship's, so nobody can pose as another player or
+    // give themselves extra lives or speed
+    synchronized boolean handleJoin(ClientHandler handler, JoinRequest join) {
+        ShipStats ship = ShipStats.forImagePath(join.getShipImagePath());
+        if (ship == null) {
+            System.out.println("Client " + handler.getId() + " picked an unknown ship: " + join.getShipImagePath());
+            return false;
+        }
+
+        GameRoom room = handler.getRoom();
+        if (room == null) {
+            GameRoom defaultRoom = rooms.get(DEFAULT_ROOM);
+            if (defaultRoom == null || !defaultRoom.addClient(handler)) {
+                handler.sendRoomMessage(new RoomMessage(RoomMessage.REJECTED, DEFAULT_ROOM));
+                return false;
             }
+            room = defaultRoom;
+            handler.setRoom(room);
+        }
+        room.handleJoin(new JoinRequest(handler.getId(), join.getUsername(), ship.getImagePath(),
+                ship.getSpeed(), ship.getHealth()));
+        return true;
+    }
+
+    void handleInput(ClientHandler handler, PlayerInput input) {
+        GameRoom room = handler.getRoom();
+        if (room != null) {
+            room.handleInput(handler.getPlayerId(), input);
         }
     }
 
-    public void stop() {
+    public synchronized void stop() {
         running = false;
-        updateExecutor.shutdown();
         for (ClientHandler client : clients.values()) {
             client.disconnect();
         }
         clients.clear();
+        for (GameRoom room : rooms.values()) {
+            room.close();
+        }
+        rooms.clear();
+        if (roomWorkers != null) {
+            roomWorkers.shutdown();
+            roomWorkers = null;
+        }
         try {
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
             if (serverSocket != null) {
                 serverSocket.close();
             }
+            if (udpChannel != null) {
+                udpSelector.close(); // Deregisters the channel so close() frees the port
+                udpChannel.close();
+                udpChannel = null;
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
+        if (eventLoops != null) {
+            for (NioEventLoop loop : eventLoops) {
+                loop.shutdown();
+            }
+            eventLoops = null;
+        }
+        if (connectionExecutor != null) {
+            connectionExecutor.shutdownNow();
+            connectionExecutor = null;
+        }
     }
 
-    public void broadcastState(String senderId, GameState state) {
-        if (state == null) return;
-        
-        List<String> disconnectedClients = new ArrayList<>();
-        for (Map.Entry<String, ClientHandler> entry : clients.entrySet()) {
-            String clientId = entry.getKey();
-            ClientHandler client = entry.getValue();
-            if (!clientId.equals(senderId)) {
-                try {
-                    client.sendState(state);
-                } catch (Exception e) {
-                    System.out.println("Error broadcasting to client " + clientId + ": " + e.getMessage());
-                    disconnectedClients.add(clientId);
-                }
+    // Takes effect on the next start()
+    public void setTransportMode(TransportMode transportMode) { this.transportMode = transportMode; }
+    public TransportMode getTransportMode() { return transportMode; }
+    // TCP port, the UDP channel binds two above it; takes effect on the next start()
+    public void setPort(int port) { this.port = port; }
+    public int getPort() { return port; }
+    private int getUdpPort() { return port + UDP_PORT_OFFSET; }
+    // Rooms opened from now on record a replay file each into this directory; null stops that
+    public void setReplayDirectory(Path directory) { this.replayDirectory = directory; }
+    public Path getReplayDirectory() { return replayDirectory; }
+    public int getClientCount() { return clients.size(); }
+    public int getRoomCount() { return rooms.size(); }
+
+    // Outbound backlog: the deepest client queue, and how many snapshots the
+    // connected clients had replaced before they could be sent
+    private void logStatus() {
+        if (clients.isEmpty()) return;
+        int maxDepth = 0;
+        String slowest = null;
+        long skippedStates = 0;
+        for (ClientHandler client : clients.values()) {
+            int depth = client.getQueueDepth();
+            if (depth > maxDepth) {
+                maxDepth = depth;
+                slowest = client.getId();
             }
+            skippedStates += client.getSkippedStates();
         }
-        
-        // Remove disconnected clients
-        for (String clientId : disconnectedClients) {
-            removeClient(clientId);
-        }
+        System.out.println("Status: " + clients.size() + " clients in " + rooms.size() + " rooms, max queue depth "
+                + maxDepth + (slowest != null ? " (" + slowest + ")" : "") + ", snapshots skipped so far "
+                + skippedStates);
     }
 
     public synchronized void addClient(String id, ClientHandler handler) {
         if (id == null || handler == null) return;
-        
+
         // Remove any existing client with the same ID
         if (clients.containsKey(id)) {
             removeClient(id);
         }
-        
+
         clients.put(id, handler);
+        udpClients.put(handler.getUdpToken(), handler);
         System.out.println("Client connected: " + id + " (Total clients: " + clients.size() + ")");
+
+        // Offer the UDP channel; the client opts in by sending a datagram
+        handler.sendHello(udpChannel != null ? getUdpPort() : 0);
     }
 
     public synchronized void removeClient(String id) {
         if (id == null) return;
-        
+
         ClientHandler handler = clients.remove(id);
         if (handler != null) {
-            handler.disconnect();
-            System.out.println("Client disconnected: " + id + " (Total clients: " + clients.size() + ")");
-        }
-    }
-
-    // Inner class to handle individual client connections
-    private class ClientHandler implements Runnable {
-        private Socket socket;
-        private GameServer server;
-        private ObjectInputStream in;
-        private ObjectOutputStream out;
-        private String id;
-        private volatile boolean running = true;
-        private final Queue<GameState> stateQueue;
-
-        public ClientHandler(Socket socket, GameServer server) {
-            this.socket = socket;
-            this.server = server;
-            this.id = UUID.randomUUID().toString();
-            this.stateQueue = new ConcurrentLinkedQueue<>();
-        }
-
-        @Override
-        public void run() {
-            try {
-                out = new ObjectOutputStream(socket.getOutputStream());
-                in = new ObjectInputStream(socket.getInputStream());
-                server.addClient(id, this);
-
-                while (running) {
-                    try {
-                        GameState state = (GameState) in.readObject();
-                        if (state != null) {
-                            // Add to queue instead of broadcasting immediately
-                            stateQueue.offer(state);
-                            synchronized (gameStates) {
-                                gameStates.add(state);
-                            }
-                        }
-                    } catch (ClassNotFoundException e) {
-                        e.printStackTrace();
-                        break;
-                    }
+            udpClients.remove(handler.getUdpToken());
+            GameRoom room = handler.getRoom();
+            if (room != null) {
+                room.removeClient(handler);
+                // Rooms other than the default one end with their last client
+                if (room.isEmpty() && !room.getId().equals(DEFAULT_ROOM) && rooms.remove(room.getId(), room)) {
+                    room.close();
+                    System.out.println("Room closed: " + room.getId() + " (Total rooms: " + rooms.size() + ")");
                 }
-            } catch (IOException e) {
-                System.out.println("Client " + id + " connection error: " + e.getMessage());
-            } finally {
-                disconnect();
-            }
-        }
-
-        public void disconnect() {
-            running = false;
-            server.removeClient(id);
-            try {
-                if (out != null) out.close();
-                if (in != null) in.close();
-                if (socket != null) socket.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-
-        public void sendState(GameState state) {
-            try {
-                out.writeObject(state);
-                out.reset(); // Reset the object stream to prevent memory leaks
-                out.flush();
-            } catch (IOException e) {
-                disconnect();
             }
+            handler.disconnect();
+            System.out.println("Client disconnected: " + id + " (Total clients: " + clients.size() + ")");
         }
-
-        public String getId() { return id; }
     }
-} 
\ No newline at end of file
+}
@@ -4,114 +4,125 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Authoritative world snapshot produced by the server every simulation tick.
+ */
 public class GameState implements Serializable {
-    private static final long serialVersionUID = 1L;
-    
-    // Player state
-    private String playerId;
-    private String username; // Added field for username
-    private int x;
-    private int y;
-    private int lives;
-    private int score;
-    private String shipImagePath; // Added field for ship image path
-    
-    // Game state
+    private static final long serialVersionUID = 2L;
+
+    private int tick;
+    private int level;
+    private List<PlayerState> players;
     private List<EnemyState> enemies;
     private List<ProjectileState> projectiles;
-    private int level;
-    
-    public GameState(String playerId) {
-        this.playerId = playerId;
+
+    public GameState(int tick) {
+        this.tick = tick;
+        this.players = new ArrayList<>();
         this.enemies = new ArrayList<>();
         this.projectiles = new ArrayList<>();
     }
-    
-    // Player state setters and getters
-    public void setPlayerPosition(int x, int y) {
-        this.x = x;
-        this.y = y;
-    }
-    
-    public int getPlayerX() { return x; }
-    public int getPlayerY() { return y; }
-    public String getPlayerId() { return playerId; }
-    public void setLives(int lives) { this.lives = lives; }
-    public int getLives() { return lives; }
-    public void setScore(int score) { this.score = score; }
-    public int getScore() { return score; }
-    
-    // Username getter and setter
-    public void setUsername(String username) { this.username = username; }
-    public String getUsername() { return username; }
-    
-    // Ship image path getter and setter
-    public void setShipImagePath(String path) { this.shipImagePath = path; }
-    public String getShipImagePath() { return shipImagePath; }
-    
-    // Game state management
-    public void setEnemies(List<EnemyState> enemies) {
-        this.enemies = enemies;
-    }
-    
-    public List<EnemyState> getEnemies() {
-        return enemies;
-    }
-    
-    public void setProjectiles(List<ProjectileState> projectiles) {
-        this.projectiles = projectiles;
-    }
-    
-    public List<ProjectileState> getProjectiles() {
-        return projectiles;
-    }
-    
-    public void setLevel(int level) {
-        this.level = level;
+
+    public int getTick() { return tick; }
+
+    public void setLevel(int level) { this.level = level; }
+    public int getLevel() { return level; }
+
+    public void setPlayers(List<PlayerState> players) { this.players = players; }
+    public List<PlayerState> getPlayers() { return players; }
+
+    public PlayerState getPlayer(String playerId) {
+        for (PlayerState player : players) {
+            if (player.getPlayerId().equals(playerId)) {
+                return player;
+            }
+        }
+        return null;
     }
-    
-    public int getLevel() {
-        return level;
+
+    public void setEnemies(List<EnemyState> enemies) { this.enemies = enemies; }
+    public List<EnemyState> getEnemies() { return enemies; }
+
+    public void setProjectiles(List<ProjectileState> projectiles) { this.projectiles = projectiles; }
+    public List<ProjectileState> getProjectiles() { return projectiles; }
+
+    // Inner classes for the individual entity states
+    public static class PlayerState implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private String playerId;
+        private String username;
+        private String shipImagePath;
+        private int x;
+        private int y;
+        private int lives;
+        private int score;
+        private int lastInput; // Sequence of the newest input the server has applied
+
+        public PlayerState(String playerId, String username, String shipImagePath,
+                           int x, int y, int lives, int score, int lastInput) {
+            this.playerId = playerId;
+            this.username = username;
+            this.shipImagePath = shipImagePath;
+            this.x = x;
+            this.y = y;
+            this.lives = lives;
+            this.score = score;
+            this.lastInput = lastInput;
+        }
+
+        public String getPlayerId() { return playerId; }
+        public String getUsername() { return username; }
+        public String getShipImagePath() { return shipImagePath; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int getLives() { return lives; }
+        public int getScore() { return score; }
+        public int getLastInput() { return lastInput; }
     }
-    
-    // Inner classes for enemy and projectile states
+
     public static class EnemyState implements Serializable {
         private static final long serialVersionUID = 1L;
+        private int id;
         private int x;
         private int y;
         private int type;
         private int health;
-        
-        public EnemyState(int x, int y, int type, int health) {
+
+        public EnemyState(int id, int x, int y, int type, int health) {
+            this.id = id;
             this.x = x;
             this.y = y;
             this.type = type;
             this.health = health;
         }
-        
+
+        public int getId() { return id; }
         public int getX() { return x; }
         public int getY() { return y; }
         public int getType() { return type; }
         public int getHealth() { return health; }
     }
-    
+
     public static class ProjectileState implements Serializable {
         private static final long serialVersionUID = 1L;
+        private int id;
         private int x;
         private int y;
         private boolean isPlayerProjectile;
         private String shooterId;
-        
-        public ProjectileState(int x, int y, boolean isPlayerProjectile, String shooterId) {
+
+        public ProjectileState(int id, int x, int y, boolean isPlayerProjectile, String shooterId) {
+            this.id = id;
             this.x = x;
             this.y = y;
             this.isPlayerProjectile = isPlayerProjectile;
             this.shooterId = shooterId;
         }
-        
+
+        public int getId() { return id; }
         public int getX() { return x; }
         public int getY() { return y; }
         public boolean isPlayerProjectile() { return isPlayerProjectile; }
         public String getShooterId() { return shooterId; }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,646 @@
+package game.network;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Hand-written binary wire format for game traffic (snapshots, inputs, joins,
+ * acks, events, the connection hello and room selection).
+ *
+ * Frame layout: [int length][byte version][byte type][body]. Snapshots are
+ * deltas against a tick the receiver has acknowledged: only new or changed
+ * entities (with a mask of the changed fields) and the IDs of removed ones go
+ * over the wire, base tick 0 meaning a full snapshot. Coordinates are zigzag
+ * varints, counters are plain varints and player/shooter IDs are interned:
+ * the first time a string is written it is sent in full and gets the next
+ * table index, afterwards only the index goes over the wire. The tables and
+ * the received-snapshot history live in the codec, so use one instance per
+ * connection and never share it between connections.
+ */
+public class GameStateCodec {
+    public static final int VERSION = 7;
+    public static final byte TYPE_STATE = 1;
+    public static final byte TYPE_INPUT = 2;
+    public static final byte TYPE_JOIN = 3;
+    public static final byte TYPE_ACK = 4;
+    public static final byte TYPE_EVENT = 5;
+    public static final byte TYPE_HELLO = 6;
+    public static final byte TYPE_ROOM = 7;
+
+    // Snapshots a client must keep to decode deltas; the server never uses an
+    // older baseline than this (see GameServer.MAX_BASELINE_AGE)
+    public static final int BASELINE_HISTORY = 64;
+
+    private static final int MAX_FRAME_SIZE = 1 << 20;
+    private static final int HEADER_SIZE = 4;
+
+    // Datagrams can be lost or reordered, so a datagram codec never interns
+    private final boolean internStrings;
+
+    // Outgoing side
+    private final Map<String, Integer> writeIds = new HashMap<>();
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(1024);
+
+    // Incoming side
+    private final List<String> readIds = new ArrayList<>();
+    // Shared with the forDatagrams() codec, whose decoding runs on another thread; guarded by itself
+    private final GameState[] receivedStates;
+    private byte[] readBuffer = new byte[1024];
+
+    public GameStateCodec() {
+        this(new GameState[BASELINE_HISTORY], true);
+    }
+
+    private GameStateCodec(GameState[] receivedStates, boolean internStrings) {
+        this.receivedStates = receivedStates;
+        this.internStrings = internStrings;
+    }
+
+    /**
+     * Returns a codec for the UDP side of the same connection: strings are
+     * always sent inline, but decoded snapshots share this codec's baseline
+     * history, so a delta may arrive over either transport.
+     */
+    public GameStateCodec forDatagrams() {
+        return new GameStateCodec(receivedStates, false);
+    }
+
+    public void write(DataOutputStream out, Object message) throws IOException {
+        ByteBuffer frame = encode(message);
+        out.write(frame.array(), 0, frame.limit());
+        out.flush();
+    }
+
+    /**
+     * Writes a snapshot as a delta against a state the peer has acknowledged,
+     * or as a full snapshot when {@code baseline} is null.
+     */
+    public void writeState(DataOutputStream out, GameState state, GameState baseline) throws IOException {
+        ByteBuffer frame = encodeState(state, baseline);
+        out.write(frame.array(), 0, frame.limit());
+        out.flush();
+    }
+
+    public Object read(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length <= 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        if (readBuffer.length < length) {
+            readBuffer = new byte[Math.max(length, readBuffer.length * 2)];
+        }
+        in.readFully(readBuffer, 0, length);
+        return decode(ByteBuffer.wrap(readBuffer, 0, length));
+    }
+
+    /**
+     * Encodes a full frame (length prefix included) into the codec's reusable
+     * buffer. The returned buffer is only valid until the next call.
+     */
+    public ByteBuffer encode(Object message) {
+        if (message instanceof GameState) {
+            return encodeState((GameState) message, null);
+        }
+
+        beginFrame();
+        if (message instanceof PlayerInput) {
+            writeBuffer.put(TYPE_INPUT);
+            writeInput((PlayerInput) message);
+        } else if (message instanceof JoinRequest) {
+            writeBuffer.put(TYPE_JOIN);
+            writeJoin((JoinRequest) message);
+        } else if (message instanceof SnapshotAck) {
+            writeBuffer.put(TYPE_ACK);
+            writeAck((SnapshotAck) message);
+        } else if (message instanceof GameEvent) {
+            writeBuffer.put(TYPE_EVENT);
+            writeEvent((GameEvent) message);
+        } else if (message instanceof ServerHello) {
+            writeBuffer.put(TYPE_HELLO);
+            writeHello((ServerHello) message);
+        } else if (message instanceof RoomMessage) {
+            writeBuffer.put(TYPE_ROOM);
+            writeRoom((RoomMessage) message);
+        } else {
+            throw new IllegalArgumentException("Unsupported message: " + message);
+        }
+        return endFrame();
+    }
+
+    public ByteBuffer encodeState(GameState state, GameState baseline) {
+        beginFrame();
+        writeBuffer.put(TYPE_STATE);
+        writeState(state, baseline);
+        return endFrame();
+    }
+
+    private void beginFrame() {
+        writeBuffer.clear();
+        writeBuffer.position(HEADER_SIZE);
+        ensureCapacity(2);
+        writeBuffer.put((byte) VERSION);
+    }
+
+    private ByteBuffer endFrame() {
+        writeBuffer.putInt(0, writeBuffer.position() - HEADER_SIZE);
+        writeBuffer.flip();
+        return writeBuffer;
+    }
+
+    /**
+     * Decodes one frame body (everything after the length prefix, or after the
+     * token of a datagram).
+     */
+    public Object decode(ByteBuffer body) throws IOException {
+        try {
+            int version = body.get() & 0xFF;
+            if (version != VERSION) {
+                throw new IOException("Unsupported wire version: " + version);
+            }
+            byte type = body.get();
+            switch (type) {
+                case TYPE_STATE:
+                    return readState(body);
+                case TYPE_INPUT:
+                    return readInput(body);
+                case TYPE_JOIN:
+                    return readJoin(body);
+                case TYPE_ACK:
+                    return readAck(body);
+                case TYPE_EVENT:
+                    return readEvent(body);
+                case TYPE_HELLO:
+                    return readHello(body);
+                case TYPE_ROOM:
+                    return readRoom(body);
+                default:
+                    throw new IOException("Unknown message type: " + type);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated frame", e);
+        }
+    }
+
+    // Entity records carry a bit mask of the fields that differ from the baseline
+    private static final int FIELD_X = 1;
+    private static final int FIELD_Y = 1 << 1;
+    private static final int FIELD_LIVES = 1 << 2;   // Players
+    private static final int FIELD_SCORE = 1 << 3;   // Players
+    private static final int FIELD_NAME = 1 << 4;    // Players
+    private static final int FIELD_SHIP = 1 << 5;    // Players
+    private static final int FIELD_INPUT = 1 << 6;   // Players
+    private static final int FIELD_TYPE = 1 << 2;    // Enemies
+    private static final int FIELD_HEALTH = 1 << 3;  // Enemies
+    private static final int FIELD_SHOOTER = 1 << 2; // Projectiles
+    private static final int FIELD_NEW = 1 << 7;
+
+    private static final GameState.PlayerState NO_PLAYER = new GameState.PlayerState(null, null, null, 0, 0, 0, 0, 0);
+    private static final GameState.EnemyState NO_ENEMY = new GameState.EnemyState(0, 0, 0, 0, 0);
+    private static final GameState.ProjectileState NO_PROJECTILE = new GameState.ProjectileState(0, 0, 0, false, null);
+
+    private void writeState(GameState state, GameState baseline) {
+        writeVarInt(state.getTick());
+        writeVarInt(baseline == null ? 0 : baseline.getTick());
+        writeVarInt(state.getLevel());
+
+        // Players
+        Map<String, GameState.PlayerState> basePlayers = new HashMap<>();
+        if (baseline != null) {
+            for (GameState.PlayerState player : baseline.getPlayers()) {
+                basePlayers.put(player.getPlayerId(), player);
+            }
+        }
+        List<GameState.PlayerState> players = state.getPlayers();
+        writeVarInt(countChangedPlayers(players, basePlayers));
+        for (GameState.PlayerState player : players) {
+            GameState.PlayerState base = basePlayers.remove(player.getPlayerId());
+            int mask = base == null ? playerMask(player, NO_PLAYER) | FIELD_NEW : playerMask(player, base);
+            if (mask == 0) continue;
+            if (base == null) base = NO_PLAYER;
+
+            writeId(player.getPlayerId());
+            writeMask(mask);
+            if ((mask & FIELD_X) != 0) writeSignedVarInt(player.getX() - base.getX());
+            if ((mask & FIELD_Y) != 0) writeSignedVarInt(player.getY() - base.getY());
+            if ((mask & FIELD_LIVES) != 0) writeSignedVarInt(player.getLives());
+            if ((mask & FIELD_SCORE) != 0) writeVarInt(player.getScore());
+            if ((mask & FIELD_NAME) != 0) writeId(player.getUsername());
+            if ((mask & FIELD_SHIP) != 0) writeId(player.getShipImagePath());
+            if ((mask & FIELD_INPUT) != 0) writeSignedVarInt(player.getLastInput() - base.getLastInput());
+        }
+        writeVarInt(basePlayers.size());
+        for (String removedId : basePlayers.keySet()) {
+            writeId(removedId);
+        }
+
+        // Enemies
+        Map<Integer, GameState.EnemyState> baseEnemies = new HashMap<>();
+        if (baseline != null) {
+            for (GameState.EnemyState enemy : baseline.getEnemies()) {
+                baseEnemies.put(enemy.getId(), enemy);
+            }
+        }
+        List<GameState.EnemyState> enemies = state.getEnemies();
+        writeVarInt(countChangedEnemies(enemies, baseEnemies));
+        for (GameState.EnemyState enemy : enemies) {
+            GameState.EnemyState base = baseEnemies.remove(enemy.getId());
+            int mask = base == null ? enemyMask(enemy, NO_ENEMY) | FIELD_NEW : enemyMask(enemy, base);
+            if (mask == 0) continue;
+            if (base == null) base = NO_ENEMY;
+
+            writeVarInt(enemy.getId());
+            writeMask(mask);
+            if ((mask & FIELD_X) != 0) writeSignedVarInt(enemy.getX() - base.getX());
+            if ((mask & FIELD_Y) != 0) writeSignedVarInt(enemy.getY() - base.getY());
+            if ((mask & FIELD_TYPE) != 0) writeVarInt(enemy.getType());
+            if ((mask & FIELD_HEALTH) != 0) writeSignedVarInt(enemy.getHealth());
+        }
+        writeVarInt(baseEnemies.size());
+        for (Integer removedId : baseEnemies.keySet()) {
+            writeVarInt(removedId);
+        }
+
+        // Projectiles
+        Map<Integer, GameState.ProjectileState> baseProjectiles = new HashMap<>();
+        if (baseline != null) {
+            for (GameState.ProjectileState projectile : baseline.getProjectiles()) {
+                baseProjectiles.put(projectile.getId(), projectile);
+            }
+        }
+        List<GameState.ProjectileState> projectiles = state.getProjectiles();
+        writeVarInt(countChangedProjectiles(projectiles, baseProjectiles));
+        for (GameState.ProjectileState projectile : projectiles) {
+            GameState.ProjectileState base = baseProjectiles.remove(projectile.getId());
+            int mask = base == null ? projectileMask(projectile, NO_PROJECTILE) | FIELD_NEW : projectileMask(projectile, base);
+            if (mask == 0) continue;
+            if (base == null) base = NO_PROJECTILE;
+
+            writeVarInt(projectile.getId());
+            writeMask(mask);
+            if ((mask & FIELD_X) != 0) writeSignedVarInt(projectile.getX() - base.getX());
+            if ((mask & FIELD_Y) != 0) writeSignedVarInt(projectile.getY() - base.getY());
+            if ((mask & FIELD_SHOOTER) != 0) {
+                ensureCapacity(1);
+                writeBuffer.put((byte) (projectile.isPlayerProjectile() ? 1 : 0));
+                writeId(projectile.getShooterId());
+            }
+        }
+        writeVarInt(baseProjectiles.size());
+        for (Integer removedId : baseProjectiles.keySet()) {
+            writeVarInt(removedId);
+        }
+    }
+
+    private GameState readState(ByteBuffer in) throws IOException {
+        GameState state = new GameState(readVarInt(in));
+        int baseTick = readVarInt(in);
+        state.setLevel(readVarInt(in));
+
+        GameState baseline = null;
+        if (baseTick != 0) {
+            synchronized (receivedStates) {
+                baseline = receivedStates[baseTick % receivedStates.length];
+            }
+            if (baseline == null || baseline.getTick() != baseTick) {
+                throw new IOException("Missing baseline snapshot: " + baseTick);
+            }
+        }
+
+        // Players
+        Map<String, GameState.PlayerState> players = new LinkedHashMap<>();
+        if (baseline != null) {
+            for (GameState.PlayerState player : baseline.getPlayers()) {
+                players.put(player.getPlayerId(), player);
+            }
+        }
+        int changed = readCount(in);
+        for (int i = 0; i < changed; i++) {
+            String playerId = readId(in);
+            int mask = readMask(in);
+            GameState.PlayerState base = (mask & FIELD_NEW) != 0 ? NO_PLAYER : players.get(playerId);
+            if (base == null) throw new IOException("Delta for unknown player: " + playerId);
+
+            int x = base.getX() + ((mask & FIELD_X) != 0 ? readSignedVarInt(in) : 0);
+            int y = base.getY() + ((mask & FIELD_Y) != 0 ? readSignedVarInt(in) : 0);
+            int lives = (mask & FIELD_LIVES) != 0 ? readSignedVarInt(in) : base.getLives();
+            int score = (mask & FIELD_SCORE) != 0 ? readVarInt(in) : base.getScore();
+            String username = (mask & FIELD_NAME) != 0 ? readId(in) : base.getUsername();
+            String shipImagePath = (mask & FIELD_SHIP) != 0 ? readId(in) : base.getShipImagePath();
+            int lastInput = base.getLastInput() + ((mask & FIELD_INPUT) != 0 ? readSignedVarInt(in) : 0);
+            players.put(playerId, new GameState.PlayerState(playerId, username, shipImagePath, x, y, lives, score, lastInput));
+        }
+        int removed = readCount(in);
+        for (int i = 0; i < removed; i++) {
+            players.remove(readId(in));
+        }
+        state.setPlayers(new ArrayList<>(players.values()));
+
+        // Enemies
+        Map<Integer, GameState.EnemyState> enemies = new LinkedHashMap<>();
+        if (baseline != null) {
+            for (GameState.EnemyState enemy : baseline.getEnemies()) {
+                enemies.put(enemy.getId(), enemy);
+            }
+        }
+        changed = readCount(in);
+        for (int i = 0; i < changed; i++) {
+            int id = readVarInt(in);
+            int mask = readMask(in);
+            GameState.EnemyState base = (mask & FIELD_NEW) != 0 ? NO_ENEMY : enemies.get(id);
+            if (base == null) throw new IOException("Delta for unknown enemy: " + id);
+
+            int x = base.getX() + ((mask & FIELD_X) != 0 ? readSignedVarInt(in) : 0);
+            int y = base.getY() + ((mask & FIELD_Y) != 0 ? readSignedVarInt(in) : 0);
+            int type = (mask & FIELD_TYPE) != 0 ? readVarInt(in) : base.getType();
+            int health = (mask & FIELD_HEALTH) != 0 ? readSignedVarInt(in) : base.getHealth();
+            enemies.put(id, new GameState.EnemyState(id, x, y, type, health));
+        }
+        removed = readCount(in);
+        for (int i = 0; i < removed; i++) {
+            enemies.remove(readVarInt(in));
+        }
+        state.setEnemies(new ArrayList<>(enemies.values()));
+
+        // Projectiles
+        Map<Integer, GameState.ProjectileState> projectiles = new LinkedHashMap<>();
+        if (baseline != null) {
+            for (GameState.ProjectileState projectile : baseline.getProjectiles()) {
+                projectiles.put(projectile.getId(), projectile);
+            }
+        }
+        changed = readCount(in);
+        for (int i = 0; i < changed; i++) {
+            int id = readVarInt(in);
+            int mask = readMask(in);
+            GameState.ProjectileState base = (mask & FIELD_NEW) != 0 ? NO_PROJECTILE : projectiles.get(id);
+            if (base == null) throw new IOException("Delta for unknown projectile: " + id);
+
+            int x = base.getX() + ((mask & FIELD_X) != 0 ? readSignedVarInt(in) : 0);
+            int y = base.getY() + ((mask & FIELD_Y) != 0 ? readSignedVarInt(in) : 0);
+            boolean isPlayerProjectile = base.isPlayerProjectile();
+            String shooterId = base.getShooterId();
+            if ((mask & FIELD_SHOOTER) != 0) {
+                isPlayerProjectile = in.get() != 0;
+                shooterId = readId(in);
+            }
+            projectiles.put(id, new GameState.ProjectileState(id, x, y, isPlayerProjectile, shooterId));
+        }
+        removed = readCount(in);
+        for (int i = 0; i < removed; i++) {
+            projectiles.remove(readVarInt(in));
+        }
+        state.setProjectiles(new ArrayList<>(projectiles.values()));
+
+        // Keep it around as a baseline for later deltas, unless a late frame
+        // from the other transport would overwrite a newer one
+        synchronized (receivedStates) {
+            int slot = state.getTick() % receivedStates.length;
+            GameState previous = receivedStates[slot];
+            if (previous == null || previous.getTick() < state.getTick()) {
+                receivedStates[slot] = state;
+            }
+        }
+        return state;
+    }
+
+    private static int playerMask(GameState.PlayerState player, GameState.PlayerState base) {
+        int mask = 0;
+        if (player.getX() != base.getX()) mask |= FIELD_X;
+        if (player.getY() != base.getY()) mask |= FIELD_Y;
+        if (player.getLives() != base.getLives()) mask |= FIELD_LIVES;
+        if (player.getScore() != base.getScore()) mask |= FIELD_SCORE;
+        if (!Objects.equals(player.getUsername(), base.getUsername())) mask |= FIELD_NAME;
+        if (!Objects.equals(player.getShipImagePath(), base.getShipImagePath())) mask |= FIELD_SHIP;
+        if (player.getLastInput() != base.getLastInput()) mask |= FIELD_INPUT;
+        return mask;
+    }
+
+    private static int enemyMask(GameState.EnemyState enemy, GameState.EnemyState base) {
+        int mask = 0;
+        if (enemy.getX() != base.getX()) mask |= FIELD_X;
+        if (enemy.getY() != base.getY()) mask |= FIELD_Y;
+        if (enemy.getType() != base.getType()) mask |= FIELD_TYPE;
+        if (enemy.getHealth() != base.getHealth()) mask |= FIELD_HEALTH;
+        return mask;
+    }
+
+    private static int projectileMask(GameState.ProjectileState projectile, GameState.ProjectileState base) {
+        int mask = 0;
+        if (projectile.getX() != base.getX()) mask |= FIELD_X;
+        if (projectile.getY() != base.getY()) mask |= FIELD_Y;
+        if (projectile.isPlayerProjectile() != base.isPlayerProjectile()
+                || !Objects.equals(projectile.getShooterId(), base.getShooterId())) mask |= FIELD_SHOOTER;
+        return mask;
+    }
+
+    private static int countChangedPlayers(List<GameState.PlayerState> players, Map<String, GameState.PlayerState> base) {
+        int count = 0;
+        for (GameState.PlayerState player : players) {
+            GameState.PlayerState previous = base.get(player.getPlayerId());
+            if (previous == null || playerMask(player, previous) != 0) count++;
+        }
+        return count;
+    }
+
+    private static int countChangedEnemies(List<GameState.EnemyState> enemies, Map<Integer, GameState.EnemyState> base) {
+        int count = 0;
+        for (GameState.EnemyState enemy : enemies) {
+            GameState.EnemyState previous = base.get(enemy.getId());
+            if (previous == null || enemyMask(enemy, previous) != 0) count++;
+        }
+        return count;
+    }
+
+    private static int countChangedProjectiles(List<GameState.ProjectileState> projectiles,
+                                               Map<Integer, GameState.ProjectileState> base) {
+        int count = 0;
+        for (GameState.ProjectileState projectile : projectiles) {
+            GameState.ProjectileState previous = base.get(projectile.getId());
+            if (previous == null || projectileMask(projectile, previous) != 0) count++;
+        }
+        return count;
+    }
+
+    private void writeMask(int mask) {
+        ensureCapacity(1);
+        writeBuffer.put((byte) mask);
+    }
+
+    private static int readMask(ByteBuffer in) {
+        return in.get() & 0xFF;
+    }
+
+    private void writeAck(SnapshotAck ack) {
+        writeVarInt(ack.getTick());
+    }
+
+    private SnapshotAck readAck(ByteBuffer in) throws IOException {
+        return new SnapshotAck(readVarInt(in));
+    }
+
+    private void writeInput(PlayerInput input) {
+        writeVarInt(input.getSequence());
+        writeVarInt(input.getButtons());
+    }
+
+    private PlayerInput readInput(ByteBuffer in) throws IOException {
+        int sequence = readVarInt(in);
+        return new PlayerInput(sequence, readVarInt(in));
+    }
+
+    private void writeJoin(JoinRequest join) {
+        writeId(join.getPlayerId());
+        writeId(join.getUsername());
+        writeId(join.getShipImagePath());
+        writeVarInt(join.getSpeed());
+        writeVarInt(join.getLives());
+    }
+
+    private JoinRequest readJoin(ByteBuffer in) throws IOException {
+        String playerId = readId(in);
+        String username = readId(in);
+        String shipImagePath = readId(in);
+        int speed = readVarInt(in);
+        return new JoinRequest(playerId, username, shipImagePath, speed, readVarInt(in));
+    }
+
+    private void writeEvent(GameEvent event) {
+        writeVarInt(event.getType());
+        writeId(event.getPlayerId());
+        writeSignedVarInt(event.getX());
+        writeSignedVarInt(event.getY());
+        writeSignedVarInt(event.getValue());
+    }
+
+    private GameEvent readEvent(ByteBuffer in) throws IOException {
+        int type = readVarInt(in);
+        String playerId = readId(in);
+        int x = readSignedVarInt(in);
+        int y = readSignedVarInt(in);
+        return new GameEvent(type, playerId, x, y, readSignedVarInt(in));
+    }
+
+    private void writeHello(ServerHello hello) {
+        writeId(hello.getPlayerId());
+        ensureCapacity(4);
+        writeBuffer.putInt(hello.getUdpToken());
+        writeVarInt(hello.getUdpPort());
+    }
+
+    private ServerHello readHello(ByteBuffer in) throws IOException {
+        String playerId = readId(in);
+        int token = in.getInt();
+        return new ServerHello(playerId, token, readVarInt(in));
+    }
+
+    private void writeRoom(RoomMessage room) {
+        writeVarInt(room.getAction());
+        writeId(room.getRoomId());
+    }
+
+    private RoomMessage readRoom(ByteBuffer in) throws IOException {
+        int action = readVarInt(in);
+        return new RoomMessage(action, readId(in));
+    }
+
+    // Interned strings: 0 = null, 1 = new string follows, n >= 2 = table index n - 2
+    private void writeId(String id) {
+        if (id == null) {
+            writeVarInt(0);
+            return;
+        }
+        if (internStrings) {
+            Integer index = writeIds.get(id);
+            if (index != null) {
+                writeVarInt(index + 2);
+                return;
+            }
+            writeIds.put(id, writeIds.size());
+        }
+        writeVarInt(1);
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        ensureCapacity(bytes.length);
+        writeBuffer.put(bytes);
+    }
+
+    private String readId(ByteBuffer in) throws IOException {
+        int ref = readVarInt(in);
+        if (ref == 0) {
+            return null;
+        }
+        if (ref == 1) {
+            int length = readCount(in);
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            String id = new String(bytes, StandardCharsets.UTF_8);
+            if (internStrings) {
+                readIds.add(id);
+            }
+            return id;
+        }
+        int index = ref - 2;
+        if (index >= readIds.size()) {
+            throw new IOException("Unknown interned id: " + index);
+        }
+        return readIds.get(index);
+    }
+
+    private void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            writeBuffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeBuffer.put((byte) value);
+    }
+
+    private void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    private static int readVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int readSignedVarInt(ByteBuffer in) throws IOException {
+        int raw = readVarInt(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    // Guards list allocations against corrupt or hostile frames
+    private static int readCount(ByteBuffer in) throws IOException {
+        int count = readVarInt(in);
+        if (count < 0 || count > in.remaining()) {
+            throw new IOException("Invalid element count: " + count);
+        }
+        return count;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (writeBuffer.remaining() >= extra) return;
+        int needed = writeBuffer.position() + extra;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(needed, writeBuffer.capacity() * 2));
+        writeBuffer.flip();
+        bigger.put(writeBuffer);
+        writeBuffer = bigger;
+    }
+}
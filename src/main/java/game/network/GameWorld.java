@@ -0,0 +1,41 @@
+package game.network;
+
+import java.util.List;
+
+/**
+ * Headless model of one match: players, enemies, projectiles and the rules
+ * between them, advanced one fixed tick at a time on plain data, with no
+ * Swing, images or sounds. Whatever drives it only feeds inputs in and reads
+ * snapshots and events out, so the same world can run in a {@link GameRoom}
+ * whose snapshots a {@code GamePanel} draws, or with no view at all, as fast
+ * as the CPU allows, for soak tests and bots.
+ * <p>
+ * Implementations are not thread-safe; a world is driven by one thread at a time.
+ */
+public interface GameWorld {
+    // Spawns (or respawns) a player; reported by a PLAYER_JOINED event
+    void addPlayer(JoinRequest join);
+
+    void removePlayer(String playerId);
+
+    boolean hasPlayers();
+
+    // Queues one frame of controls, used by the player's next ticks
+    void applyInput(String playerId, PlayerInput input);
+
+    // Advances the world by one tick
+    void step();
+
+    // The world as of the latest tick
+    GameState snapshot();
+
+    // Events produced since the last call, in the order they happened
+    List<GameEvent> drainEvents();
+
+    /**
+     * Fingerprint of the whole world state as of the latest tick. Worlds that
+     * ran from the same seed and inputs hash the same on every tick, on any
+     * machine; the first tick whose hashes differ is where two runs split.
+     */
+    long stateHash();
+}
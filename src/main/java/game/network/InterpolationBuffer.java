@@ -0,0 +1,137 @@
+package game.network;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Client-side buffer of recent snapshots, sampled once per rendered frame.
+ * Each snapshot is placed on the server's timeline by its tick, and frames show
+ * the world as it was {@code renderDelay} milliseconds ago, blending the two
+ * snapshots around that moment per entity ID. Smoothness therefore depends on
+ * the server's tick clock and the render delay, not on when packets or frames
+ * happen to arrive.
+ */
+public class InterpolationBuffer {
+    private static final int CAPACITY = 32; // ~half a second of ticks
+    // How fast the clock estimate follows packets that arrive later than expected
+    private static final double CLOCK_DRIFT_RATE = 0.01;
+
+    private final GameState[] states = new GameState[CAPACITY];
+    private int count;
+    private int newest = -1;
+    private int renderDelay;
+
+    // Estimated server time minus local time, in milliseconds
+    private double clockOffset;
+    private boolean clockSynced;
+
+    public InterpolationBuffer(int renderDelay) {
+        this.renderDelay = renderDelay;
+    }
+
+    // Snapshots must arrive in tick order; stale ones are dropped by the caller
+    public synchronized void add(GameState state) {
+        double sample = serverTime(state.getTick()) - nowMillis();
+        if (!clockSynced || sample > clockOffset) {
+            // An early packet is the best sign of the real offset
+            clockOffset = sample;
+            clockSynced = true;
+        } else {
+            clockOffset += (sample - clockOffset) * CLOCK_DRIFT_RATE;
+        }
+
+        newest = (newest + 1) % CAPACITY;
+        states[newest] = state;
+        count = Math.min(count + 1, CAPACITY);
+    }
+
+    /**
+     * Returns the world at the current render time with interpolated
+     * positions, or null before the first snapshot. Past the newest snapshot
+     * the newest one is held rather than extrapolated.
+     */
+    public synchronized GameState sample() {
+        if (count == 0) return null;
+
+        double renderTime = nowMillis() + clockOffset - renderDelay;
+        GameState from = null;
+        GameState to = null;
+        for (int i = 0; i < count; i++) {
+            GameState state = states[(newest - i + CAPACITY) % CAPACITY];
+            if (serverTime(state.getTick()) <= renderTime) {
+                from = state;
+                break;
+            }
+            to = state;
+        }
+
+        if (from == null) return to; // Render time before our oldest snapshot
+        if (to == null) return from;
+
+        double fromTime = serverTime(from.getTick());
+        float alpha = (float) ((renderTime - fromTime) / (serverTime(to.getTick()) - fromTime));
+        return interpolate(from, to, alpha);
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < CAPACITY; i++) {
+            states[i] = null;
+        }
+        count = 0;
+        newest = -1;
+        clockSynced = false;
+    }
+
+    // Entities from the older snapshot, moved towards their newer positions;
+    // anything spawned in between shows up once the render time reaches it
+    private static GameState interpolate(GameState from, GameState to, float alpha) {
+        GameState result = new GameState(from.getTick());
+        result.setLevel(from.getLevel());
+
+        for (GameState.PlayerState player : from.getPlayers()) {
+            GameState.PlayerState next = to.getPlayer(player.getPlayerId());
+            if (next == null) next = player;
+            result.getPlayers().add(new GameState.PlayerState(player.getPlayerId(), player.getUsername(),
+                    player.getShipImagePath(), lerp(player.getX(), next.getX(), alpha),
+                    lerp(player.getY(), next.getY(), alpha), player.getLives(), player.getScore(),
+                    player.getLastInput()));
+        }
+
+        Map<Integer, GameState.EnemyState> nextEnemies = new HashMap<>();
+        for (GameState.EnemyState enemy : to.getEnemies()) {
+            nextEnemies.put(enemy.getId(), enemy);
+        }
+        for (GameState.EnemyState enemy : from.getEnemies()) {
+            GameState.EnemyState next = nextEnemies.getOrDefault(enemy.getId(), enemy);
+            result.getEnemies().add(new GameState.EnemyState(enemy.getId(), lerp(enemy.getX(), next.getX(), alpha),
+                    lerp(enemy.getY(), next.getY(), alpha), enemy.getType(), enemy.getHealth()));
+        }
+
+        Map<Integer, GameState.ProjectileState> nextProjectiles = new HashMap<>();
+        for (GameState.ProjectileState projectile : to.getProjectiles()) {
+            nextProjectiles.put(projectile.getId(), projectile);
+        }
+        for (GameState.ProjectileState projectile : from.getProjectiles()) {
+            GameState.ProjectileState next = nextProjectiles.getOrDefault(projectile.getId(), projectile);
+            result.getProjectiles().add(new GameState.ProjectileState(projectile.getId(),
+                    lerp(projectile.getX(), next.getX(), alpha), lerp(projectile.getY(), next.getY(), alpha),
+                    projectile.isPlayerProjectile(), projectile.getShooterId()));
+        }
+        return result;
+    }
+
+    private static int lerp(int start, int end, float alpha) {
+        return Math.round(start + alpha * (end - start));
+    }
+
+    private static double serverTime(int tick) {
+        return (double) tick * ServerSimulation.TICK_MILLIS;
+    }
+
+    private static double nowMillis() {
+        return System.nanoTime() / 1_000_000.0;
+    }
+
+    public synchronized int getRenderDelay() { return renderDelay; }
+    public synchronized void setRenderDelay(int renderDelay) { this.renderDelay = renderDelay; }
+}
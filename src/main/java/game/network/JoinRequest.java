@@ -0,0 +1,27 @@
+package game.network;
+
+/**
+ * Sent by a client once it has picked a ship; spawns (or respawns) its player
+ * in the server simulation.
+ */
+public class JoinRequest {
+    private final String playerId;
+    private final String username;
+    private final String shipImagePath;
+    private final int speed;
+    private final int lives;
+
+    public JoinRequest(String playerId, String username, String shipImagePath, int speed, int lives) {
+        this.playerId = playerId;
+        this.username = username;
+        this.shipImagePath = shipImagePath;
+        this.speed = speed;
+        this.lives = lives;
+    }
+
+    public String getPlayerId() { return playerId; }
+    public String getUsername() { return username; }
+    public String getShipImagePath() { return shipImagePath; }
+    public int getSpeed() { return speed; }
+    public int getLives() { return lives; }
+}
@@ -0,0 +1,131 @@
+package game.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking client connection served by a {@link NioEventLoop}. Frames are
+ * read from and written through per-connection direct buffers. The loop thread
+ * encodes queued output only while the socket accepts it, so a slow client
+ * holds at most one partly written frame.
+ */
+public class NioClientHandler extends ClientHandler {
+    // Client frames are tiny (inputs, acks, joins); snapshots may take several flushes
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+    private static final int FRAME_HEADER_SIZE = 4;
+
+    private final SocketChannel channel;
+    private final NioEventLoop loop;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private ByteBuffer currentFrame; // Codec buffer still being copied out
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile boolean running = true;
+    private SelectionKey key;
+
+    public NioClientHandler(GameServer server, SocketChannel channel, NioEventLoop loop) {
+        super(server);
+        this.channel = channel;
+        this.loop = loop;
+    }
+
+    void register(Selector selector) throws IOException {
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    // Loop thread: decode every complete frame currently buffered
+    void onReadable() {
+        try {
+            if (channel.read(readBuffer) < 0) {
+                disconnect();
+                return;
+            }
+
+            readBuffer.flip();
+            while (readBuffer.remaining() >= FRAME_HEADER_SIZE) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if (length <= 0 || length > READ_BUFFER_SIZE - FRAME_HEADER_SIZE) {
+                    throw new IOException("Invalid frame length: " + length);
+                }
+                if (readBuffer.remaining() < FRAME_HEADER_SIZE + length) break;
+
+                int bodyStart = readBuffer.position() + FRAME_HEADER_SIZE;
+                ByteBuffer body = readBuffer.duplicate();
+                body.position(bodyStart).limit(bodyStart + length);
+                readBuffer.position(bodyStart + length);
+                handleMessage(codec.decode(body));
+            }
+            readBuffer.compact();
+        } catch (IOException e) {
+            System.out.println("Client " + getId() + " connection error: " + e.getMessage());
+            disconnect();
+        }
+    }
+
+    // Any thread: let the loop thread pick up the new output
+    @Override
+    protected void onOutboundReady() {
+        if (!running) return; // Already removed from the server
+        if (flushScheduled.compareAndSet(false, true)) {
+            loop.execute(this::flush);
+        }
+    }
+
+    // Loop thread: encode queued output into the direct buffer and write it
+    void flush() {
+        flushScheduled.set(false);
+        if (!running || key == null) return;
+
+        try {
+            while (true) {
+                while (writeBuffer.hasRemaining()) {
+                    if (currentFrame == null || !currentFrame.hasRemaining()) {
+                        currentFrame = nextFrame();
+                        if (currentFrame == null) break;
+                    }
+                    if (currentFrame.remaining() <= writeBuffer.remaining()) {
+                        writeBuffer.put(currentFrame);
+                    } else {
+                        // Copy the part that fits, the rest goes on the next pass
+                        int limit = currentFrame.limit();
+                        currentFrame.limit(currentFrame.position() + writeBuffer.remaining());
+                        writeBuffer.put(currentFrame);
+                        currentFrame.limit(limit);
+                    }
+                }
+
+                writeBuffer.flip();
+                channel.write(writeBuffer);
+                boolean drained = !writeBuffer.hasRemaining();
+                writeBuffer.compact();
+                if (!drained || currentFrame == null) break;
+            }
+
+            // Ask for OP_WRITE only while the socket is backed up; queued
+            // snapshots keep coalescing until it drains
+            boolean pending = writeBuffer.position() > 0 || (currentFrame != null && currentFrame.hasRemaining());
+            key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        } catch (IOException | CancelledKeyException e) {
+            System.out.println("Client " + getId() + " write error: " + e.getMessage());
+            disconnect();
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        if (!running) return;
+        running = false;
+        server.removeClient(getId());
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
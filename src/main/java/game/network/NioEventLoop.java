@@ -0,0 +1,118 @@
+package game.network;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * One selector thread of the game server. Each loop owns a share of the client
+ * connections (and loop 0 also the listening socket); every read, write and
+ * registration for those channels happens on this thread. Other threads hand
+ * work over through {@link #execute(Runnable)}.
+ */
+public class NioEventLoop implements Runnable {
+    private final GameServer server;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    public NioEventLoop(GameServer server) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+    }
+
+    public void execute(Runnable task) {
+        tasks.offer(task);
+        selector.wakeup();
+    }
+
+    public void registerAcceptor(ServerSocketChannel serverChannel) {
+        execute(() -> {
+            try {
+                serverChannel.register(selector, SelectionKey.OP_ACCEPT, serverChannel);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    public void register(NioClientHandler handler) {
+        execute(() -> {
+            try {
+                handler.register(selector);
+                handler.flush(); // Anything queued before registration, e.g. the hello
+            } catch (IOException e) {
+                System.out.println("Failed to register client " + handler.getId() + ": " + e.getMessage());
+                handler.disconnect();
+            }
+        });
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+
+                    if (key.isAcceptable()) {
+                        acceptAll((ServerSocketChannel) key.attachment());
+                        continue;
+                    }
+
+                    NioClientHandler handler = (NioClientHandler) key.attachment();
+                    if (key.isReadable()) {
+                        handler.onReadable();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        handler.flush();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                e.printStackTrace();
+            }
+        } finally {
+            try {
+                selector.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void acceptAll(ServerSocketChannel serverChannel) {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                server.accept(channel);
+            }
+        } catch (IOException e) {
+            if (running) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+}
@@ -0,0 +1,52 @@
+package game.network;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits an index range into chunks and runs them on the common fork-join
+ * pool, returning once every chunk is done. Bodies must only write to state
+ * owned by their own indices; anything shared is merged by the caller
+ * afterwards, in index order, so results do not depend on scheduling.
+ */
+final class ParallelRange extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    interface Body {
+        void run(int from, int to);
+    }
+
+    private final int from;
+    private final int to;
+    private final int grain;
+    private final transient Body body; // Tasks never leave the process
+
+    private ParallelRange(int from, int to, int grain, Body body) {
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+        this.body = body;
+    }
+
+    // Runs body over [0, count) in parallel when asked to and there is more
+    // than one core to use, on this thread otherwise
+    static void run(int count, boolean parallel, Body body) {
+        if (!parallel || count < 2 || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            body.run(0, count);
+            return;
+        }
+        // A few chunks per core keeps every worker busy without tiny tasks
+        int grain = Math.max(1, count / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        ForkJoinPool.commonPool().invoke(new ParallelRange(0, count, grain, body));
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            body.run(from, to);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        invokeAll(new ParallelRange(from, mid, grain, body), new ParallelRange(mid, to, grain, body));
+    }
+}
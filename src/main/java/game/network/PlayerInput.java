@@ -0,0 +1,27 @@
+package game.network;
+
+/**
+ * One frame of player controls sent from a client to the authoritative server.
+ */
+public class PlayerInput {
+    public static final int UP = 1;
+    public static final int DOWN = 1 << 1;
+    public static final int LEFT = 1 << 2;
+    public static final int RIGHT = 1 << 3;
+    public static final int SHOOT = 1 << 4;
+
+    private final int sequence;
+    private final int buttons;
+
+    public PlayerInput(int sequence, int buttons) {
+        this.sequence = sequence;
+        this.buttons = buttons;
+    }
+
+    public int getSequence() { return sequence; }
+    public int getButtons() { return buttons; }
+
+    public boolean isPressed(int button) {
+        return (buttons & button) != 0;
+    }
+}
@@ -0,0 +1,29 @@
+package game.network;
+
+/**
+ * Movement and fire-rate rules for a player ship, shared by
+ * {@link ServerSimulation} and the client's prediction. Both sides apply
+ * exactly one step per {@link PlayerInput}, so replaying the same inputs from
+ * the same position always lands on the same result.
+ */
+public final class PlayerMotion {
+    public static final int SHIP_SIZE = 48;
+    // Ticks from one shot to the next, about 200 ms. The cooldown runs down at the
+    // start of a tick and a shot fires on the tick it reaches 0
+    public static final int SHOOT_COOLDOWN = 12;
+
+    private PlayerMotion() {
+    }
+
+    public static int moveX(int x, int buttons, int speed) {
+        if ((buttons & PlayerInput.LEFT) != 0 && x > 0) x -= speed;
+        if ((buttons & PlayerInput.RIGHT) != 0 && x < ServerSimulation.WORLD_WIDTH - SHIP_SIZE) x += speed;
+        return x;
+    }
+
+    public static int moveY(int y, int buttons, int speed) {
+        if ((buttons & PlayerInput.UP) != 0 && y > 0) y -= speed;
+        if ((buttons & PlayerInput.DOWN) != 0 && y < ServerSimulation.WORLD_HEIGHT - SHIP_SIZE) y += speed;
+        return y;
+    }
+}
@@ -0,0 +1,227 @@
+package game.network;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a file written by {@link ReplayRecorder}. Opening it only walks the
+ * block headers to index the keyframes; {@link #seekKeyframe(int)} then
+ * inflates a single block, and {@link #next()} reads on from there across
+ * block boundaries. A block cut short by a crash ends the replay early.
+ */
+public class ReplayReader implements AutoCloseable {
+    private static final long MAX_DEFLATE_RATIO = 1032;
+
+    private final FileChannel channel;
+    private final Inflater inflater = new Inflater();
+
+    // Per block: file position of its header and the tick it starts at
+    private long[] blockPositions = new long[64];
+    private int[] blockTicks = new int[64];
+    private int blockCount;
+
+    private int currentBlock = -1;
+    private DataInputStream records;
+    private GameStateCodec codec;
+    private byte[] compressed = new byte[0];
+    private byte[] frame = new byte[1024];
+
+    public ReplayReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(ReplayRecorder.FILE_HEADER_SIZE);
+        if (!readFully(header, 0)) {
+            throw new IOException("Not a replay file: " + file);
+        }
+        header.flip();
+        int magic = header.getInt();
+        int formatVersion = header.getInt();
+        int wireVersion = header.get() & 0xFF;
+        if (magic != ReplayRecorder.MAGIC) {
+            throw new IOException("Not a replay file: " + file);
+        }
+        if (formatVersion != ReplayRecorder.FORMAT_VERSION || wireVersion != GameStateCodec.VERSION) {
+            throw new IOException("Unsupported replay version: " + formatVersion + "/" + wireVersion);
+        }
+        indexBlocks();
+    }
+
+    private void indexBlocks() throws IOException {
+        long position = ReplayRecorder.FILE_HEADER_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(ReplayRecorder.BLOCK_HEADER_SIZE);
+        long size = channel.size();
+        while (true) {
+            header.clear();
+            if (!readFully(header, position)) break;
+            header.flip();
+            int tick = header.getInt();
+            header.getInt(); // Raw length
+            int compressedLength = header.getInt();
+            long end = position + ReplayRecorder.BLOCK_HEADER_SIZE + compressedLength;
+            if (compressedLength < 0 || end > size) break; // Torn last block
+
+            if (blockCount == blockPositions.length) {
+                blockPositions = Arrays.copyOf(blockPositions, blockCount * 2);
+                blockTicks = Arrays.copyOf(blockTicks, blockCount * 2);
+            }
+            blockPositions[blockCount] = position;
+            blockTicks[blockCount] = tick;
+            blockCount++;
+            position = end;
+        }
+    }
+
+    public int getKeyframeCount() {
+        return blockCount;
+    }
+
+    public int getKeyframeTick(int index) {
+        return blockTicks[index];
+    }
+
+    // Index of the last keyframe at or before the tick (0 if the tick is before them all)
+    public int findKeyframe(int tick) {
+        int index = Arrays.binarySearch(blockTicks, 0, blockCount, tick);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return Math.max(0, index);
+    }
+
+    /** Positions the reader at the start of a keyframe's block. */
+    public void seekKeyframe(int index) throws IOException {
+        if (index < 0 || index >= blockCount) {
+            throw new IndexOutOfBoundsException("Keyframe " + index + " of " + blockCount);
+        }
+        loadBlock(index);
+    }
+
+    /**
+     * Returns the next record, or null at the end of the replay. Records come
+     * in the order they were recorded; read one with {@link Record#getMessage()},
+     * a GameState, GameEvent or PlayerInput.
+     */
+    public Record next() throws IOException {
+        while (true) {
+            if (records == null) {
+                if (currentBlock + 1 >= blockCount) return null;
+                loadBlock(currentBlock + 1);
+            }
+            if (records.available() == 0) {
+                records = null;
+                continue;
+            }
+            return readRecord();
+        }
+    }
+
+    private Record readRecord() throws IOException {
+        byte kind = records.readByte();
+        int tick = records.readInt();
+        switch (kind) {
+            case ReplayRecorder.KIND_STATE:
+            case ReplayRecorder.KIND_EVENT:
+                int length = records.readInt();
+                if (frame.length < length) {
+                    frame = new byte[Math.max(length, frame.length * 2)];
+                }
+                records.readFully(frame, 0, length);
+                return new Record(tick, null, codec.decode(ByteBuffer.wrap(frame, 0, length)));
+            case ReplayRecorder.KIND_INPUT:
+                String playerId = records.readUTF();
+                int sequence = records.readInt();
+                int buttons = records.readInt();
+                return new Record(tick, playerId, new PlayerInput(sequence, buttons));
+            default:
+                throw new IOException("Unknown replay record: " + kind);
+        }
+    }
+
+    private void loadBlock(int index) throws IOException {
+        long position = blockPositions[index];
+        ByteBuffer header = ByteBuffer.allocate(ReplayRecorder.BLOCK_HEADER_SIZE);
+        if (!readFully(header, position)) throw new EOFException("Truncated replay block " + index);
+        header.flip();
+        header.getInt(); // Tick, already indexed
+        int rawLength = header.getInt();
+        int compressedLength = header.getInt();
+        // Both come from the file: the block must fit in it, and deflate shrinks data at most about 1032:1
+        if (compressedLength < 0 || compressedLength > channel.size() - position - ReplayRecorder.BLOCK_HEADER_SIZE
+                || rawLength < 0 || rawLength > compressedLength * MAX_DEFLATE_RATIO + 64) {
+            throw new IOException("Corrupt replay block " + index + ": lengths " + rawLength + "/" + compressedLength);
+        }
+
+        if (compressed.length < compressedLength) {
+            compressed = new byte[compressedLength];
+        }
+        ByteBuffer body = ByteBuffer.wrap(compressed, 0, compressedLength);
+        if (!readFully(body, position + ReplayRecorder.BLOCK_HEADER_SIZE)) {
+            throw new EOFException("Truncated replay block " + index);
+        }
+
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        int length = 0;
+        try {
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                // A stream cut short makes no progress and would spin here forever
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated replay block " + index);
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt replay block " + index, e);
+        }
+        // A short block would leave zeros behind to be parsed as records
+        if (length != rawLength) {
+            throw new IOException("Corrupt replay block " + index + ": " + length + " of " + rawLength + " bytes");
+        }
+
+        currentBlock = index;
+        records = new DataInputStream(new ByteArrayInputStream(raw));
+        codec = new GameStateCodec(); // Matches the recorder's fresh codec per block
+    }
+
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) return false;
+            position += read;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    /** One recorded snapshot, event or input, with the tick it belongs to. */
+    public static final class Record {
+        private final int tick;
+        private final String playerId;
+        private final Object message;
+
+        Record(int tick, String playerId, Object message) {
+            this.tick = tick;
+            this.playerId = playerId;
+            this.message = message;
+        }
+
+        public int getTick() { return tick; }
+        public String getPlayerId() { return playerId; } // Inputs only
+        public Object getMessage() { return message; }
+    }
+}
@@ -0,0 +1,229 @@
+package game.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Records a match to an append-only replay file: snapshots, events and player
+ * inputs, grouped into blocks that each start at a keyframe, a full snapshot.
+ * Callers only queue records, never blocking; one background thread encodes
+ * them with the wire codec, deflates each finished block and appends it to
+ * the file through a FileChannel. A crash loses at most the open block.
+ * Records queued before the first snapshot are dropped: a block always starts
+ * with its keyframe, and there is nothing to replay them against anyway.
+ * <p>
+ * File layout: [int magic][int format version][byte wire version], then
+ * blocks of [int first tick][int raw length][int compressed length][deflated
+ * records]. A record is [byte kind][int tick] followed by a codec frame for
+ * snapshots and events, or [UTF player ID][int sequence][int buttons] for
+ * inputs. Every block is encoded with a fresh codec, its first snapshot in
+ * full and the others as deltas against the one before, so any block decodes
+ * on its own; see {@link ReplayReader}.
+ */
+public class ReplayRecorder implements AutoCloseable {
+    static final int MAGIC = 0x53535250; // "SSRP"
+    static final int FORMAT_VERSION = 1;
+    static final int FILE_HEADER_SIZE = 9;
+    static final int BLOCK_HEADER_SIZE = 12;
+    static final byte KIND_STATE = 1;
+    static final byte KIND_EVENT = 2;
+    static final byte KIND_INPUT = 3;
+    // Snapshot ticks between keyframes, about a second; deltas need their baseline in the codec's history
+    private static final int KEYFRAME_INTERVAL = Math.min(60, GameStateCodec.BASELINE_HISTORY);
+    private static final int MAX_QUEUED_RECORDS = 4096;
+    // How often an idle writer checks whether it was closed
+    private static final long POLL_MILLIS = 100;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(MAX_QUEUED_RECORDS);
+    private final Thread writerThread;
+    private volatile boolean closed;
+    private volatile int droppedRecords;
+
+    // Writer thread only
+    private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(64 * 1024);
+    private final DataOutputStream block = new DataOutputStream(blockBytes);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] compressed = new byte[64 * 1024];
+    private GameStateCodec codec;
+    private GameState baseline;
+    private int blockTick;
+    private boolean blockOpen;
+
+    public ReplayRecorder(Path file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).put((byte) GameStateCodec.VERSION).flip();
+        writeFully(header);
+
+        writerThread = new Thread(this::writeLoop, "Replay writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void recordState(GameState state) {
+        enqueue(new Entry(KIND_STATE, state.getTick(), null, state));
+    }
+
+    public void recordEvent(int tick, GameEvent event) {
+        enqueue(new Entry(KIND_EVENT, tick, null, event));
+    }
+
+    public void recordInput(int tick, String playerId, PlayerInput input) {
+        enqueue(new Entry(KIND_INPUT, tick, playerId, input));
+    }
+
+    // A full queue means the disk cannot keep up; dropping beats stalling a tick
+    private void enqueue(Entry entry) {
+        if (closed) return;
+        if (!queue.offer(entry)) {
+            droppedRecords++;
+        }
+    }
+
+    /**
+     * Stops taking records without waiting: the writer thread writes out what
+     * is queued and closes the file on its own. For callers that must not
+     * block, such as the server while it holds its lock.
+     */
+    public void finish() {
+        closed = true;
+    }
+
+    /** Writes out everything queued so far, then closes the file. */
+    @Override
+    public void close() {
+        finish();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Path getFile() { return file; }
+    public int getDroppedRecords() { return droppedRecords; }
+
+    private void writeLoop() {
+        try {
+            // Records offered while closing may miss the last check; they are dropped like late ones
+            while (!closed || !queue.isEmpty()) {
+                Entry entry = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    write(entry);
+                }
+            }
+            finishBlock();
+        } catch (InterruptedException e) {
+            closed = true;
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            // Whatever killed the writer, stop taking records and let close() return
+            System.out.println("Replay recording to " + file + " stopped: " + e);
+            closed = true;
+            queue.clear();
+        } finally {
+            deflater.end();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        if (entry.kind == KIND_STATE) {
+            GameState state = (GameState) entry.message;
+            if (!blockOpen || baseline == null || state.getTick() - blockTick >= KEYFRAME_INTERVAL
+                    || state.getTick() <= baseline.getTick()) {
+                finishBlock();
+                startBlock(state.getTick());
+            }
+            block.writeByte(KIND_STATE);
+            block.writeInt(entry.tick);
+            writeFrame(codec.encodeState(state, baseline));
+            baseline = state;
+            return;
+        }
+
+        if (!blockOpen) return; // Before the first snapshot
+        block.writeByte(entry.kind);
+        block.writeInt(entry.tick);
+        if (entry.kind == KIND_EVENT) {
+            writeFrame(codec.encode(entry.message));
+        } else {
+            PlayerInput input = (PlayerInput) entry.message;
+            block.writeUTF(entry.playerId);
+            block.writeInt(input.getSequence());
+            block.writeInt(input.getButtons());
+        }
+    }
+
+    private void writeFrame(ByteBuffer frame) throws IOException {
+        block.write(frame.array(), 0, frame.limit());
+    }
+
+    private void startBlock(int tick) {
+        codec = new GameStateCodec();
+        baseline = null;
+        blockTick = tick;
+        blockOpen = true;
+        blockBytes.reset();
+    }
+
+    private void finishBlock() throws IOException {
+        if (!blockOpen || blockBytes.size() == 0) return;
+        blockOpen = false;
+
+        byte[] raw = blockBytes.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        header.putInt(blockTick).putInt(raw.length).putInt(length).flip();
+        writeFully(header);
+        writeFully(ByteBuffer.wrap(compressed, 0, length));
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static final class Entry {
+        final byte kind;
+        final int tick;
+        final String playerId;
+        final Object message;
+
+        Entry(byte kind, int tick, String playerId, Object message) {
+            this.kind = kind;
+            this.tick = tick;
+            this.playerId = playerId;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package game.network;
+
+/**
+ * Room selection handshake. A client sends CREATE or JOIN before its first
+ * {@link JoinRequest}; the server answers with JOINED or REJECTED. A connection
+ * stays in its room, switching rooms means reconnecting. Clients that never
+ * ask end up in {@link GameServer#DEFAULT_ROOM}.
+ */
+public class RoomMessage {
+    public static final int CREATE = 1;   // roomId may be null to let the server pick one
+    public static final int JOIN = 2;
+    public static final int JOINED = 3;   // Server reply, roomId = the room we are in
+    public static final int REJECTED = 4; // Server reply, roomId = the room that was asked for
+
+    private final int action;
+    private final String roomId;
+
+    public RoomMessage(int action, String roomId) {
+        this.action = action;
+        this.roomId = roomId;
+    }
+
+    public int getAction() { return action; }
+    public String getRoomId() { return roomId; }
+}
@@ -0,0 +1,25 @@
+package game.network;
+
+/**
+ * First message the server sends on a new TCP connection. {@code playerId} is
+ * the ID the server gave this connection; the client's ship and every snapshot
+ * and event about it use that ID. A client that wants
+ * the UDP channel sends its datagrams to {@code udpPort}, each prefixed with
+ * {@code udpToken}; from then on the server streams snapshots over UDP.
+ */
+public class ServerHello {
+    private final String playerId;
+    private final int udpToken;
+    private final int udpPort; // 0 when the server has no UDP channel
+
+    public ServerHello(String playerId, int udpToken, int udpPort) {
+        this.playerId = playerId;
+        this.udpToken = udpToken;
+        this.udpPort = udpPort;
+    }
+
+    public String getPlayerId() { return playerId; }
+
+    public int getUdpToken() { return udpToken; }
+    public int getUdpPort() { return udpPort; }
+}
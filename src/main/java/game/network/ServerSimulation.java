@@ -0,0 +1,439 @@
+package game.network;
+
+import game.managers.SpatialGrid;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Authoritative {@link GameWorld} run by {@link GameServer}. Mirrors the rules of
+ * the single-player managers (spawning, movement patterns, shooting, collisions
+ * and level progression) on plain data, so it needs no Swing or image loading.
+ * Not thread-safe: the server calls it from its tick thread only. Above
+ * {@link #setParallelThreshold(int) a configurable entity count}, step() fans
+ * its movement and collision phases out over the common fork-join pool and
+ * merges their results in entity order, so the outcome is the same either way.
+ * <p>
+ * Deterministic: all randomness comes from one seeded generator and all time
+ * from the tick counter, so two worlds built with the same seed and fed the
+ * same joins and inputs at the same ticks stay identical, which
+ * {@link #stateHash()} lets callers check tick by tick.
+ */
+public class ServerSimulation implements GameWorld {
+    // World settings (same as GamePanel: 15 x 15 tiles of 48 px)
+    public static final int WORLD_WIDTH = 720;
+    public static final int WORLD_HEIGHT = 720;
+    private static final int SHIP_SIZE = PlayerMotion.SHIP_SIZE;
+    private static final int PROJECTILE_WIDTH = SimProjectiles.WIDTH;
+    private static final int PROJECTILE_HEIGHT = SimProjectiles.HEIGHT;
+    private static final int ENEMY_SHOOT_INTERVAL = 120;
+    // One input is applied per player and tick. Ticks that found no input earn
+    // a catch-up credit, so a burst arriving after lag may apply up to this
+    // many extra inputs per tick, but never more inputs than ticks overall
+    private static final int MAX_CATCH_UP_INPUTS = 3;
+    private static final int MAX_CATCH_UP_CREDIT = 30; // Half a second of stalled inputs
+    private static final int MAX_QUEUED_INPUTS = 16;
+    public static final String ENEMY_SHOOTER_ID = "enemy";
+    public static final int TICK_MILLIS = 16; // Server time covered by one step()
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Enemies plus projectiles from which a room's step uses all cores
+    private static volatile int parallelThreshold = 4096;
+
+    private final long seed;
+    private final Random random;
+    private final Map<String, SimPlayer> players = new LinkedHashMap<>();
+    private final SimEnemies enemies = new SimEnemies();
+    private final SimProjectiles projectiles = new SimProjectiles();
+    private final List<GameEvent> events = new ArrayList<>();
+    private final SpatialGrid projectileGrid = new SpatialGrid(WORLD_WIDTH, WORLD_HEIGHT, SHIP_SIZE);
+    // Per enemy, the player shots overlapping it this tick
+    private int[][] enemyHits = new int[0][];
+    private int[] enemyHitCounts = new int[0];
+    private boolean parallel;
+    private int tick;
+    private int nextEntityId = 1;
+    private int level = 1;
+    private int spawnTimer;
+    private int spawnInterval = 60;
+    private int maxEnemies = 9;
+
+    public ServerSimulation() {
+        this(new Random().nextLong());
+    }
+
+    public ServerSimulation(long seed) {
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void addPlayer(JoinRequest join) {
+        SimPlayer player = new SimPlayer(join.getPlayerId());
+        player.username = join.getUsername();
+        player.shipImagePath = join.getShipImagePath();
+        player.speed = join.getSpeed();
+        player.lives = join.getLives();
+        player.x = WORLD_WIDTH / 2 - SHIP_SIZE / 2;
+        player.y = WORLD_HEIGHT - SHIP_SIZE - 20;
+        players.put(player.id, player);
+        events.add(new GameEvent(GameEvent.PLAYER_JOINED, player.id, player.x, player.y, player.lives));
+    }
+
+    @Override
+    public void removePlayer(String playerId) {
+        if (players.remove(playerId) != null) {
+            events.add(new GameEvent(GameEvent.PLAYER_LEFT, playerId, 0, 0, 0));
+        }
+    }
+
+    @Override
+    public boolean hasPlayers() {
+        return !players.isEmpty();
+    }
+
+    // Queued and applied one movement step each, see PlayerMotion
+    @Override
+    public void applyInput(String playerId, PlayerInput input) {
+        SimPlayer player = players.get(playerId);
+        if (player == null) return;
+
+        if (player.inputs.size() >= MAX_QUEUED_INPUTS) {
+            player.inputs.poll();
+        }
+        player.inputs.offer(input);
+    }
+
+    @Override
+    public void step() {
+        tick++;
+        parallel = enemies.count + projectiles.count >= parallelThreshold;
+
+        for (SimPlayer player : players.values()) {
+            updatePlayer(player);
+        }
+        updateEnemies();
+        updateProjectiles();
+        checkCollisions();
+        updateLevel();
+    }
+
+    private void updatePlayer(SimPlayer player) {
+        // The fire rate is counted in server ticks, whatever the input rate
+        if (player.shootCooldown > 0) {
+            player.shootCooldown--;
+        }
+        if (player.inputs.isEmpty()) {
+            player.catchUpCredit = Math.min(player.catchUpCredit + 1, MAX_CATCH_UP_CREDIT);
+            return;
+        }
+
+        stepPlayer(player, player.inputs.poll());
+        for (int i = 0; i < MAX_CATCH_UP_INPUTS && player.catchUpCredit > 0 && !player.inputs.isEmpty(); i++) {
+            stepPlayer(player, player.inputs.poll());
+            player.catchUpCredit--;
+        }
+    }
+
+    // One PlayerMotion step; at most one shot per tick, as the cooldown only runs down once a tick
+    private void stepPlayer(SimPlayer player, PlayerInput input) {
+        player.lastInput = input.getSequence();
+        if (!player.isAlive()) return;
+
+        int buttons = input.getButtons();
+        player.x = PlayerMotion.moveX(player.x, buttons, player.speed);
+        player.y = PlayerMotion.moveY(player.y, buttons, player.speed);
+
+        if (player.shootCooldown == 0 && (buttons & PlayerInput.SHOOT) != 0) {
+            projectiles.add(nextEntityId++, player.x + SHIP_SIZE / 2, player.y, true, player.id);
+            player.shootCooldown = PlayerMotion.SHOOT_COOLDOWN;
+        }
+    }
+
+    private void updateEnemies() {
+        spawnTimer++;
+        if (spawnTimer >= spawnInterval && enemies.count < maxEnemies) {
+            int x = random.nextInt(WORLD_WIDTH - SHIP_SIZE);
+            int type = random.nextInt(level) + 1;
+            enemies.add(nextEntityId++, x, -SHIP_SIZE, type);
+            spawnTimer = 0;
+        }
+
+        ParallelRange.run(enemies.count, parallel, enemies::update);
+        for (int i = 0; i < enemies.count; i++) {
+            if (enemies.shootTimers[i] >= ENEMY_SHOOT_INTERVAL) {
+                projectiles.add(nextEntityId++, enemies.xs[i] + SHIP_SIZE / 2, enemies.ys[i] + SHIP_SIZE, false, ENEMY_SHOOTER_ID);
+                enemies.shootTimers[i] = 0;
+            }
+            if (enemies.ys[i] > WORLD_HEIGHT) {
+                enemies.remove(i);
+            }
+        }
+        enemies.compact();
+    }
+
+    private void updateProjectiles() {
+        ParallelRange.run(projectiles.count, parallel, (from, to) -> projectiles.move(from, to, WORLD_HEIGHT));
+        projectiles.compact();
+    }
+
+    // One batched pass for the whole room: every projectile goes into a single
+    // grid, then each enemy and each player looks up only the shots near it.
+    // Hit entities are only marked dead here and skipped by later checks;
+    // both stores are compacted once at the end
+    private void checkCollisions() {
+        SimProjectiles p = projectiles;
+        SimEnemies e = enemies;
+
+        projectileGrid.clear();
+        for (int i = 0; i < p.count; i++) {
+            projectileGrid.insert(i, p.xs[i], p.ys[i], PROJECTILE_WIDTH, PROJECTILE_HEIGHT);
+        }
+
+        // Player projectiles against enemies. First the shots overlapping each
+        // enemy are found; that only reads, so enemies can be split across threads
+        projectileGrid.prepare();
+        ensureHitLists(e.count);
+        ParallelRange.run(e.count, parallel, (from, to) -> {
+            SpatialGrid.Results candidates = new SpatialGrid.Results();
+            for (int j = from; j < to; j++) {
+                int[] hits = enemyHits[j];
+                int hitCount = 0;
+                projectileGrid.query(e.xs[j], e.ys[j], SHIP_SIZE, SHIP_SIZE, candidates);
+                for (int c = 0; c < candidates.size(); c++) {
+                    int i = candidates.get(c);
+                    if (!p.fromPlayer[i] || !intersects(p.xs[i], p.ys[i], PROJECTILE_WIDTH, PROJECTILE_HEIGHT,
+                            e.xs[j], e.ys[j], SHIP_SIZE, SHIP_SIZE)) continue;
+                    if (hitCount == hits.length) {
+                        hits = enemyHits[j] = Arrays.copyOf(hits, hitCount * 2);
+                    }
+                    hits[hitCount++] = i;
+                }
+                enemyHitCounts[j] = hitCount;
+            }
+        });
+
+        // Then hits are applied in enemy order; a shot is spent on the first enemy it hits
+        for (int j = 0; j < e.count; j++) {
+            for (int h = 0; h < enemyHitCounts[j] && !e.dead[j]; h++) {
+                int i = enemyHits[j][h];
+                if (p.dead[i]) continue;
+
+                p.remove(i);
+                if (--e.healths[j] <= 0) {
+                    e.remove(j);
+                    events.add(new GameEvent(GameEvent.ENEMY_DESTROYED, p.shooterIds[i],
+                            e.xs[j] + SHIP_SIZE / 2, e.ys[j] + SHIP_SIZE / 2, e.points[j]));
+                    SimPlayer shooter = players.get(p.shooterIds[i]);
+                    if (shooter != null) {
+                        shooter.score += e.points[j];
+                    }
+                } else {
+                    events.add(new GameEvent(GameEvent.ENEMY_HIT, p.shooterIds[i],
+                            e.xs[j] + SHIP_SIZE / 2, e.ys[j] + SHIP_SIZE / 2, e.healths[j]));
+                }
+            }
+        }
+
+        for (SimPlayer player : players.values()) {
+            if (!player.isAlive()) continue;
+
+            // Enemy projectiles against the player: at most one hit per tick,
+            // from the oldest overlapping projectile
+            int hitBy = -1;
+            int candidates = projectileGrid.query(player.x, player.y, SHIP_SIZE, SHIP_SIZE);
+            for (int c = 0; c < candidates; c++) {
+                int i = projectileGrid.result(c);
+                if ((hitBy < 0 || i < hitBy) && !p.fromPlayer[i] && !p.dead[i] && intersects(p.xs[i], p.ys[i],
+                        PROJECTILE_WIDTH, PROJECTILE_HEIGHT, player.x, player.y, SHIP_SIZE, SHIP_SIZE)) {
+                    hitBy = i;
+                }
+            }
+            if (hitBy >= 0) {
+                p.remove(hitBy);
+                damagePlayer(player);
+                if (!player.isAlive()) continue;
+            }
+
+            // Enemies ramming the player
+            for (int j = 0; j < e.count; j++) {
+                if (!e.dead[j] && intersects(e.xs[j], e.ys[j], SHIP_SIZE, SHIP_SIZE,
+                        player.x, player.y, SHIP_SIZE, SHIP_SIZE)) {
+                    e.remove(j);
+                    events.add(new GameEvent(GameEvent.ENEMY_DESTROYED, null, e.xs[j], e.ys[j], 0));
+                    damagePlayer(player);
+                    break;
+                }
+            }
+        }
+
+        p.compact();
+        e.compact();
+    }
+
+    private void ensureHitLists(int enemyCount) {
+        if (enemyHits.length >= enemyCount) return;
+        int oldLength = enemyHits.length;
+        enemyHits = Arrays.copyOf(enemyHits, enemyCount);
+        enemyHitCounts = new int[enemyCount];
+        for (int j = oldLength; j < enemyCount; j++) {
+            enemyHits[j] = new int[4];
+        }
+    }
+
+    private void damagePlayer(SimPlayer player) {
+        player.lives--;
+        if (player.isAlive()) {
+            events.add(new GameEvent(GameEvent.PLAYER_HIT, player.id, player.x, player.y, player.lives));
+        } else {
+            events.add(new GameEvent(GameEvent.PLAYER_DIED, player.id,
+                    player.x + SHIP_SIZE / 2, player.y + SHIP_SIZE / 2, player.score));
+        }
+    }
+
+    private void updateLevel() {
+        int bestScore = 0;
+        for (SimPlayer player : players.values()) {
+            bestScore = Math.max(bestScore, player.score);
+        }
+        if (bestScore >= 300 && level < 3) {
+            setLevel(3);
+        } else if (bestScore >= 100 && level < 2) {
+            setLevel(2);
+        }
+    }
+
+    private void setLevel(int level) {
+        this.level = level;
+        // Same difficulty curve as EnemyManager.setLevel
+        switch (level) {
+            case 1:
+                spawnInterval = 60;
+                maxEnemies = 9;
+                break;
+            case 2:
+                spawnInterval = 45;
+                maxEnemies = 12;
+                break;
+            case 3:
+                spawnInterval = 30;
+                maxEnemies = 15;
+                break;
+        }
+    }
+
+    @Override
+    public GameState snapshot() {
+        GameState state = new GameState(tick);
+        state.setLevel(level);
+
+        List<GameState.PlayerState> playerStates = new ArrayList<>(players.size());
+        for (SimPlayer player : players.values()) {
+            playerStates.add(new GameState.PlayerState(player.id, player.username, player.shipImagePath,
+                    player.x, player.y, player.lives, player.score, player.lastInput));
+        }
+        state.setPlayers(playerStates);
+
+        List<GameState.EnemyState> enemyStates = new ArrayList<>(enemies.count);
+        for (int i = 0; i < enemies.count; i++) {
+            enemyStates.add(new GameState.EnemyState(enemies.ids[i], enemies.xs[i], enemies.ys[i],
+                    enemies.types[i], enemies.healths[i]));
+        }
+        state.setEnemies(enemyStates);
+
+        List<GameState.ProjectileState> projectileStates = new ArrayList<>(projectiles.count);
+        for (int i = 0; i < projectiles.count; i++) {
+            projectileStates.add(new GameState.ProjectileState(projectiles.ids[i], projectiles.xs[i],
+                    projectiles.ys[i], projectiles.fromPlayer[i], projectiles.shooterIds[i]));
+        }
+        state.setProjectiles(projectileStates);
+        return state;
+    }
+
+    @Override
+    public long stateHash() {
+        long hash = mix(FNV_OFFSET, tick);
+        hash = mix(hash, level);
+        hash = mix(hash, spawnTimer);
+        hash = mix(hash, nextEntityId);
+        for (SimPlayer player : players.values()) {
+            hash = mix(hash, player.id.hashCode());
+            hash = mix(hash, player.x);
+            hash = mix(hash, player.y);
+            hash = mix(hash, player.lives);
+            hash = mix(hash, player.score);
+            hash = mix(hash, player.shootCooldown);
+            hash = mix(hash, player.catchUpCredit);
+            hash = mix(hash, player.lastInput);
+        }
+        SimEnemies e = enemies;
+        for (int i = 0; i < e.count; i++) {
+            hash = mix(hash, e.ids[i]);
+            hash = mix(hash, e.xs[i]);
+            hash = mix(hash, e.ys[i]);
+            hash = mix(hash, e.types[i]);
+            hash = mix(hash, e.healths[i]);
+            hash = mix(hash, e.movementCounters[i]);
+            hash = mix(hash, e.shootTimers[i]);
+        }
+        SimProjectiles p = projectiles;
+        for (int i = 0; i < p.count; i++) {
+            hash = mix(hash, p.ids[i]);
+            hash = mix(hash, p.xs[i]);
+            hash = mix(hash, p.ys[i]);
+            hash = mix(hash, p.fromPlayer[i] ? 1 : 0);
+            hash = mix(hash, p.shooterIds[i] != null ? p.shooterIds[i].hashCode() : 0);
+        }
+        return hash;
+    }
+
+    // FNV-1a style step, one int at a time; String.hashCode is specified, so ids hash the same everywhere
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    public long getSeed() { return seed; }
+
+    public static int getParallelThreshold() { return parallelThreshold; }
+    public static void setParallelThreshold(int threshold) { parallelThreshold = threshold; }
+
+    @Override
+    public List<GameEvent> drainEvents() {
+        if (events.isEmpty()) return List.of();
+        List<GameEvent> drained = new ArrayList<>(events);
+        events.clear();
+        return drained;
+    }
+
+    private static boolean intersects(int ax, int ay, int aw, int ah, int bx, int by, int bw, int bh) {
+        return ax < bx + bw && bx < ax + aw && ay < by + bh && by < ay + ah;
+    }
+
+    private static class SimPlayer {
+        final String id;
+        String username;
+        String shipImagePath;
+        int x, y;
+        int speed;
+        int lives;
+        int score;
+        final ArrayDeque<PlayerInput> inputs = new ArrayDeque<>();
+        int lastInput;
+        int shootCooldown; // Server ticks until the next shot
+        int catchUpCredit; // Ticks that found no input, see MAX_CATCH_UP_INPUTS
+
+        SimPlayer(String id) {
+            this.id = id;
+        }
+
+        boolean isAlive() {
+            return lives > 0;
+        }
+    }
+}
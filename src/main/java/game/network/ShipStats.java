@@ -0,0 +1,47 @@
+package game.network;
+
+import java.util.List;
+
+/**
+ * The ships a player can pick, as plain data the server can use without
+ * loading images. A client only names its ship (by image path) when joining;
+ * the server takes speed and health from here, never from the client.
+ */
+public final class ShipStats {
+    private static final List<ShipStats> ALL = List.of(
+            new ShipStats("Flash", 6, 2, "/player/playership1.png"),
+            new ShipStats("Titan", 3, 5, "/player/playership2.png"),   // Slower but tankier
+            new ShipStats("Balance", 4, 3, "/player/playership3.png")
+    );
+
+    private final String name;
+    private final int speed;
+    private final int health;
+    private final String imagePath;
+
+    private ShipStats(String name, int speed, int health, String imagePath) {
+        this.name = name;
+        this.speed = speed;
+        this.health = health;
+        this.imagePath = imagePath;
+    }
+
+    public static List<ShipStats> all() {
+        return ALL;
+    }
+
+    // The ship with this image, or null if there is none
+    public static ShipStats forImagePath(String imagePath) {
+        for (ShipStats ship : ALL) {
+            if (ship.imagePath.equals(imagePath)) {
+                return ship;
+            }
+        }
+        return null;
+    }
+
+    public String getName() { return name; }
+    public int getSpeed() { return speed; }
+    public int getHealth() { return health; }
+    public String getImagePath() { return imagePath; }
+}
@@ -0,0 +1,107 @@
+package game.network;
+
+import java.util.Arrays;
+
+/**
+ * Enemies of a {@link ServerSimulation} as parallel primitive arrays, laid out
+ * like {@link SimProjectiles}: index i of every array is the same enemy, and
+ * removed slots stay until {@link #compact()}.
+ */
+final class SimEnemies {
+    static final int SIZE = PlayerMotion.SHIP_SIZE;
+    private static final int INITIAL_CAPACITY = 16;
+
+    int count;
+    int[] ids = new int[INITIAL_CAPACITY];
+    int[] xs = new int[INITIAL_CAPACITY];
+    int[] ys = new int[INITIAL_CAPACITY];
+    int[] types = new int[INITIAL_CAPACITY];
+    int[] speeds = new int[INITIAL_CAPACITY];
+    int[] healths = new int[INITIAL_CAPACITY];
+    int[] points = new int[INITIAL_CAPACITY];
+    int[] movementCounters = new int[INITIAL_CAPACITY];
+    int[] shootTimers = new int[INITIAL_CAPACITY];
+    boolean[] dead = new boolean[INITIAL_CAPACITY];
+
+    void add(int id, int x, int y, int type) {
+        if (count == ids.length) {
+            grow();
+        }
+        ids[count] = id;
+        xs[count] = x;
+        ys[count] = y;
+        types[count] = type;
+        movementCounters[count] = 0;
+        shootTimers[count] = 0;
+        dead[count] = false;
+        // Same stats as Enemy (1 = easy, 2 = medium, 3 = hard)
+        switch (type) {
+            case 1:
+                speeds[count] = 1;
+                healths[count] = 1;
+                points[count] = 10;
+                break;
+            case 2:
+                speeds[count] = 2;
+                healths[count] = 2;
+                points[count] = 20;
+                break;
+            default:
+                speeds[count] = 2;
+                healths[count] = 3;
+                points[count] = 30;
+                break;
+        }
+        count++;
+    }
+
+    // One tick of movement and shooting timers for enemies [from, to)
+    void update(int from, int to) {
+        for (int i = from; i < to; i++) {
+            ys[i] += speeds[i];
+            // Same patterns as Enemy: type 1 goes straight, 2 and 3 zigzag
+            xs[i] += EnemyMotion.sway(types[i] - 1, movementCounters[i]);
+            movementCounters[i]++;
+            shootTimers[i]++;
+        }
+    }
+
+    void remove(int index) {
+        dead[index] = true;
+    }
+
+    void compact() {
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            if (dead[i]) continue;
+            if (live != i) {
+                ids[live] = ids[i];
+                xs[live] = xs[i];
+                ys[live] = ys[i];
+                types[live] = types[i];
+                speeds[live] = speeds[i];
+                healths[live] = healths[i];
+                points[live] = points[i];
+                movementCounters[live] = movementCounters[i];
+                shootTimers[live] = shootTimers[i];
+                dead[live] = false;
+            }
+            live++;
+        }
+        count = live;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        types = Arrays.copyOf(types, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        healths = Arrays.copyOf(healths, capacity);
+        points = Arrays.copyOf(points, capacity);
+        movementCounters = Arrays.copyOf(movementCounters, capacity);
+        shootTimers = Arrays.copyOf(shootTimers, capacity);
+        dead = Arrays.copyOf(dead, capacity);
+    }
+}
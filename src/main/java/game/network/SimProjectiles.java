@@ -0,0 +1,87 @@
+package game.network;
+
+import java.util.Arrays;
+
+/**
+ * Projectiles of a {@link ServerSimulation}, stored as parallel primitive
+ * arrays instead of one object each, so the per-tick move and collision loops
+ * walk contiguous memory. Index i of every array describes the same
+ * projectile. Removing only marks a slot dead; {@link #compact()} closes the
+ * gaps in one pass and keeps the survivors in spawn order.
+ */
+final class SimProjectiles {
+    static final int WIDTH = 12;
+    static final int HEIGHT = 24;
+    private static final int PLAYER_SPEED = -8;
+    private static final int ENEMY_SPEED = 5;
+    private static final int INITIAL_CAPACITY = 64;
+
+    int count;
+    int[] ids = new int[INITIAL_CAPACITY];
+    int[] xs = new int[INITIAL_CAPACITY];
+    int[] ys = new int[INITIAL_CAPACITY];
+    int[] speeds = new int[INITIAL_CAPACITY];
+    boolean[] fromPlayer = new boolean[INITIAL_CAPACITY];
+    boolean[] dead = new boolean[INITIAL_CAPACITY];
+    String[] shooterIds = new String[INITIAL_CAPACITY];
+
+    void add(int id, int centerX, int y, boolean isPlayerProjectile, String shooterId) {
+        if (count == ids.length) {
+            grow();
+        }
+        ids[count] = id;
+        xs[count] = centerX - WIDTH / 2;
+        ys[count] = y;
+        speeds[count] = isPlayerProjectile ? PLAYER_SPEED : ENEMY_SPEED;
+        fromPlayer[count] = isPlayerProjectile;
+        dead[count] = false;
+        shooterIds[count] = shooterId;
+        count++;
+    }
+
+    // Moves projectiles [from, to) and marks the ones that left the world
+    void move(int from, int to, int worldHeight) {
+        for (int i = from; i < to; i++) {
+            int y = ys[i] + speeds[i];
+            ys[i] = y;
+            if (y < -HEIGHT || y > worldHeight) {
+                dead[i] = true;
+            }
+        }
+    }
+
+    void remove(int index) {
+        dead[index] = true;
+    }
+
+    void compact() {
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            if (dead[i]) continue;
+            if (live != i) {
+                ids[live] = ids[i];
+                xs[live] = xs[i];
+                ys[live] = ys[i];
+                speeds[live] = speeds[i];
+                fromPlayer[live] = fromPlayer[i];
+                dead[live] = false;
+                shooterIds[live] = shooterIds[i];
+            }
+            live++;
+        }
+        // Drop references so departed shooters' ids can be collected
+        Arrays.fill(shooterIds, live, count, null);
+        count = live;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        fromPlayer = Arrays.copyOf(fromPlayer, capacity);
+        dead = Arrays.copyOf(dead, capacity);
+        shooterIds = Arrays.copyOf(shooterIds, capacity);
+    }
+}
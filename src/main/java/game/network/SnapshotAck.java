@@ -0,0 +1,15 @@
+package game.network;
+
+/**
+ * Tells the server which snapshot a client has received, so later snapshots
+ * can be sent as a delta against it.
+ */
+public class SnapshotAck {
+    private final int tick;
+
+    public SnapshotAck(int tick) {
+        this.tick = tick;
+    }
+
+    public int getTick() { return tick; }
+}
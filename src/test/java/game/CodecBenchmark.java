@@ -0,0 +1,152 @@
+package game;
+
+import game.network.GameEvent;
+import game.network.GameState;
+import game.network.GameStateCodec;
+import game.network.GameWorld;
+import game.network.PlayerInput;
+import game.network.ServerSimulation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Micro-benchmark for snapshot encoding
+ * Records the snapshots of a bot match, then sends each one three ways and
+ * reports bytes per snapshot and encode + decode time: Java serialization
+ * through one ObjectOutputStream reset after every snapshot (what the server
+ * used before GameStateCodec), the codec's full snapshots, and codec deltas
+ * against the snapshot two ticks back, a client acking with a little lag.
+ * Usage: CodecBenchmark [bots] [snapshots]
+ */
+public class CodecBenchmark {
+    private static final int ACK_LAG = 2;
+    private static final int WARMUP_TICKS = 600;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        System.setProperty("java.awt.headless", "true");
+        int botCount = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+
+        List<GameState> states = recordMatch(botCount, count);
+
+        // Java serialization: one long-lived stream pair, as a connection would use
+        long[] serialBytes = new long[count];
+        long[] serialNanos = new long[count];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.flush();
+        int streamHeader = bytes.size();
+        for (int i = 0; i < count; i++) {
+            int before = bytes.size();
+            long start = System.nanoTime();
+            out.writeObject(states.get(i));
+            out.reset();
+            out.flush();
+            serialNanos[i] = System.nanoTime() - start;
+            serialBytes[i] = bytes.size() - before;
+        }
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            GameState decoded = (GameState) in.readObject();
+            serialNanos[i] += System.nanoTime() - start;
+            check(states.get(i), decoded);
+        }
+
+        // Codec, full snapshots and deltas
+        long[] fullBytes = new long[count];
+        long[] fullNanos = new long[count];
+        long[] deltaBytes = new long[count];
+        long[] deltaNanos = new long[count];
+        GameStateCodec fullSender = new GameStateCodec();
+        GameStateCodec fullReceiver = new GameStateCodec();
+        GameStateCodec deltaSender = new GameStateCodec();
+        GameStateCodec deltaReceiver = new GameStateCodec();
+        for (int i = 0; i < count; i++) {
+            GameState state = states.get(i);
+
+            long start = System.nanoTime();
+            ByteBuffer frame = fullSender.encodeState(state, null);
+            fullBytes[i] = frame.remaining();
+            check(state, (GameState) fullReceiver.decode(frame.position(4)));
+            fullNanos[i] = System.nanoTime() - start;
+
+            GameState baseline = i >= ACK_LAG ? states.get(i - ACK_LAG) : null;
+            start = System.nanoTime();
+            frame = deltaSender.encodeState(state, baseline);
+            deltaBytes[i] = frame.remaining();
+            check(state, (GameState) deltaReceiver.decode(frame.position(4)));
+            deltaNanos[i] = System.nanoTime() - start;
+        }
+
+        GameState last = states.get(count - 1);
+        System.out.println("Snapshots:       " + count + " (last one: " + last.getPlayers().size() + " players, "
+                + last.getEnemies().size() + " enemies, " + last.getProjectiles().size() + " projectiles)");
+        System.out.println("                 Bytes avg    Bytes p99   Time p50 us   Time p99 us");
+        report("Serialization", serialBytes, serialNanos);
+        report("Codec full", fullBytes, fullNanos);
+        report("Codec delta", deltaBytes, deltaNanos);
+        System.out.println("Stream header:   " + streamHeader + " bytes, once per connection");
+    }
+
+    // A bot match, from after the first waves have spawned
+    private static List<GameState> recordMatch(int botCount, int count) {
+        GameWorld world = new ServerSimulation(42);
+        for (int i = 0; i < botCount; i++) {
+            // Connection IDs, as the server assigns them
+            world.addPlayer(HeadlessLauncher.botJoin(UUID.randomUUID().toString()));
+        }
+
+        List<GameState> states = new ArrayList<>(count);
+        int sequence = 0;
+        for (int tick = -WARMUP_TICKS; tick < count; tick++) {
+            GameState state = world.snapshot();
+            if (tick >= 0) {
+                states.add(state);
+            }
+            for (GameState.PlayerState player : state.getPlayers()) {
+                world.applyInput(player.getPlayerId(),
+                        new PlayerInput(++sequence, HeadlessLauncher.botButtons(player, state)));
+            }
+            world.step();
+            for (GameEvent event : world.drainEvents()) {
+                if (event.getType() == GameEvent.PLAYER_DIED) {
+                    world.addPlayer(HeadlessLauncher.botJoin(event.getPlayerId()));
+                }
+            }
+        }
+        return states;
+    }
+
+    private static void check(GameState expected, GameState actual) {
+        if (actual.getTick() != expected.getTick()
+                || actual.getPlayers().size() != expected.getPlayers().size()
+                || actual.getEnemies().size() != expected.getEnemies().size()
+                || actual.getProjectiles().size() != expected.getProjectiles().size()) {
+            throw new IllegalStateException("Snapshot " + expected.getTick() + " did not survive the round trip");
+        }
+    }
+
+    private static void report(String name, long[] bytes, long[] nanos) {
+        long total = 0;
+        for (long size : bytes) {
+            total += size;
+        }
+        long[] sortedBytes = bytes.clone();
+        long[] sortedNanos = nanos.clone();
+        Arrays.sort(sortedBytes);
+        Arrays.sort(sortedNanos);
+        int n = bytes.length;
+        System.out.printf("%-15s %10.0f %12d %13.1f %13.1f%n", name + ":", total / (double) n,
+                sortedBytes[n * 99 / 100], sortedNanos[n / 2] / 1e3, sortedNanos[n * 99 / 100] / 1e3);
+    }
+}
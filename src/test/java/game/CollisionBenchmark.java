@@ -0,0 +1,107 @@
+package game;
+
+import game.managers.SpatialGrid;
+
+import java.util.Random;
+
+/**
+ * Micro-benchmark for the collision broad phase
+ * Scatters enemies and bullets over the 720 px world and times one
+ * bullets-against-enemies pass, checking every pair versus querying a
+ * SpatialGrid of bullets in 48 px tiles, for growing entity counts. Both
+ * passes must find the same number of hits.
+ * Usage: CollisionBenchmark [rounds]
+ */
+public class CollisionBenchmark {
+    private static final int WORLD_SIZE = 720;
+    private static final int TILE_SIZE = 48;
+    private static final int BULLET_WIDTH = 12;
+    private static final int BULLET_HEIGHT = 24;
+    private static final int[] ENEMY_COUNTS = {15, 50, 150};
+    private static final int[] BULLET_COUNTS = {500, 5000, 20000};
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        Random random = new Random(42);
+        SpatialGrid grid = new SpatialGrid(WORLD_SIZE, WORLD_SIZE, TILE_SIZE);
+
+        System.out.println("Enemies  Bullets   All pairs      Grid   Speedup");
+        for (int enemyCount : ENEMY_COUNTS) {
+            for (int bulletCount : BULLET_COUNTS) {
+                int[] enemyX = positions(random, enemyCount, WORLD_SIZE - TILE_SIZE);
+                int[] enemyY = positions(random, enemyCount, WORLD_SIZE - TILE_SIZE);
+                int[] bulletX = positions(random, bulletCount, WORLD_SIZE - BULLET_WIDTH);
+                int[] bulletY = positions(random, bulletCount, WORLD_SIZE - BULLET_HEIGHT);
+
+                long bruteNanos = 0;
+                long gridNanos = 0;
+                for (int round = -rounds / 5; round < rounds; round++) {
+                    long start = System.nanoTime();
+                    int bruteHits = allPairs(enemyX, enemyY, bulletX, bulletY);
+                    long mid = System.nanoTime();
+                    int gridHits = withGrid(grid, enemyX, enemyY, bulletX, bulletY);
+                    long end = System.nanoTime();
+
+                    if (bruteHits != gridHits) {
+                        throw new IllegalStateException("Hit count mismatch: " + bruteHits + " vs " + gridHits);
+                    }
+                    if (round >= 0) {
+                        bruteNanos += mid - start;
+                        gridNanos += end - mid;
+                    }
+                }
+
+                System.out.printf("%7d %8d %8.3f ms %6.3f ms %8.1fx%n", enemyCount, bulletCount,
+                        bruteNanos / 1e6 / rounds, gridNanos / 1e6 / rounds, (double) bruteNanos / gridNanos);
+            }
+        }
+    }
+
+    private static int allPairs(int[] enemyX, int[] enemyY, int[] bulletX, int[] bulletY) {
+        int hits = 0;
+        for (int b = 0; b < bulletX.length; b++) {
+            for (int e = 0; e < enemyX.length; e++) {
+                if (intersects(bulletX[b], bulletY[b], enemyX[e], enemyY[e])) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    // Same pairing as allPairs: enemies in order, each bullet spent on its first hit
+    private static int withGrid(SpatialGrid grid, int[] enemyX, int[] enemyY, int[] bulletX, int[] bulletY) {
+        grid.clear();
+        for (int b = 0; b < bulletX.length; b++) {
+            grid.insert(b, bulletX[b], bulletY[b], BULLET_WIDTH, BULLET_HEIGHT);
+        }
+
+        boolean[] spent = new boolean[bulletX.length];
+        int hits = 0;
+        for (int e = 0; e < enemyX.length; e++) {
+            int candidates = grid.query(enemyX[e], enemyY[e], TILE_SIZE, TILE_SIZE);
+            for (int i = 0; i < candidates; i++) {
+                int b = grid.result(i);
+                if (!spent[b] && intersects(bulletX[b], bulletY[b], enemyX[e], enemyY[e])) {
+                    spent[b] = true;
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static boolean intersects(int bulletX, int bulletY, int enemyX, int enemyY) {
+        return bulletX < enemyX + TILE_SIZE && enemyX < bulletX + BULLET_WIDTH
+                && bulletY < enemyY + TILE_SIZE && enemyY < bulletY + BULLET_HEIGHT;
+    }
+
+    private static int[] positions(Random random, int count, int bound) {
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = random.nextInt(bound);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,158 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Micro-benchmark for ProjectileManager's storage
+ * Runs the manager's per-frame pattern (update every entry, drop the expired
+ * ones, add as many new ones, then draw) against the two stores it has used:
+ * a CopyOnWriteArrayList removing and adding one entry at a time, and a
+ * lock-guarded ArrayList with swap-remove that republishes an array snapshot
+ * for the render thread once per batch. A tenth of the entries expire every
+ * frame. Both stores must end with the same live entries.
+ * Usage: ProjectileStoreBenchmark [frames]
+ */
+public class ProjectileStoreBenchmark {
+    private static final int[] COUNTS = {500, 2000, 8000};
+    private static final int LIFETIME = 10; // Frames, so a tenth of the entries expire each frame
+    private static final int WARMUP_FRAMES = 200;
+
+    // Stand-in for a projectile: flies for a number of frames
+    private static final class Entry {
+        int framesLeft;
+        int y;
+
+        Entry(int framesLeft) {
+            this.framesLeft = framesLeft;
+        }
+
+        void update() {
+            framesLeft--;
+            y++;
+        }
+
+        boolean isActive() {
+            return framesLeft > 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+
+        System.out.println("Entries  Expiring   CopyOnWrite   Swap-remove   Speedup");
+        for (int count : COUNTS) {
+            CopyOnWriteStore copyOnWrite = new CopyOnWriteStore(count);
+            SwapRemoveStore swapRemove = new SwapRemoveStore(count);
+
+            long copyOnWriteNanos = 0;
+            long swapRemoveNanos = 0;
+            long checksum = 0;
+            for (int frame = -WARMUP_FRAMES; frame < frames; frame++) {
+                long start = System.nanoTime();
+                checksum += copyOnWrite.frame();
+                long mid = System.nanoTime();
+                checksum -= swapRemove.frame();
+                long end = System.nanoTime();
+                if (frame >= 0) {
+                    copyOnWriteNanos += mid - start;
+                    swapRemoveNanos += end - mid;
+                }
+            }
+
+            if (checksum != 0 || copyOnWrite.size() != count || swapRemove.size() != count) {
+                throw new IllegalStateException("Stores diverged: " + copyOnWrite.size() + " vs " + swapRemove.size());
+            }
+            System.out.printf("%7d %9d %10.3f ms %10.3f ms %8.1fx%n", count, count / LIFETIME,
+                    copyOnWriteNanos / 1e6 / frames, swapRemoveNanos / 1e6 / frames,
+                    (double) copyOnWriteNanos / swapRemoveNanos);
+        }
+    }
+
+    // Entries start with staggered lifetimes, so the same number expires every frame
+    private static List<Entry> initialEntries(int count) {
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new Entry(i % LIFETIME + 1));
+        }
+        return entries;
+    }
+
+    // The old ProjectileManager: remove() and add() copy the array every time
+    private static final class CopyOnWriteStore {
+        private final CopyOnWriteArrayList<Entry> entries;
+
+        CopyOnWriteStore(int count) {
+            entries = new CopyOnWriteArrayList<>(initialEntries(count));
+        }
+
+        // Returns a sum over what was drawn, to compare the stores and keep the work alive
+        long frame() {
+            int expired = 0;
+            for (Entry entry : entries) {
+                entry.update();
+                if (!entry.isActive()) {
+                    entries.remove(entry);
+                    expired++;
+                }
+            }
+            for (int i = 0; i < expired; i++) {
+                entries.add(new Entry(LIFETIME));
+            }
+
+            long drawn = 0;
+            for (Entry entry : entries) {
+                drawn += entry.framesLeft;
+            }
+            return drawn;
+        }
+
+        int size() {
+            return entries.size();
+        }
+    }
+
+    // The current ProjectileManager: swap-remove under a lock, one snapshot per batch
+    private static final class SwapRemoveStore {
+        private final List<Entry> entries;
+        private volatile Entry[] renderEntries = new Entry[0];
+
+        SwapRemoveStore(int count) {
+            entries = initialEntries(count);
+        }
+
+        long frame() {
+            synchronized (entries) {
+                int expired = 0;
+                int i = 0;
+                while (i < entries.size()) {
+                    Entry entry = entries.get(i);
+                    entry.update();
+                    if (entry.isActive()) {
+                        i++;
+                        continue;
+                    }
+                    int last = entries.size() - 1;
+                    entries.set(i, entries.get(last));
+                    entries.remove(last);
+                    expired++;
+                }
+                for (int j = 0; j < expired; j++) {
+                    entries.add(new Entry(LIFETIME));
+                }
+                renderEntries = entries.toArray(new Entry[0]);
+            }
+
+            long drawn = 0;
+            for (Entry entry : renderEntries) {
+                drawn += entry.framesLeft;
+            }
+            return drawn;
+        }
+
+        int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package game;
+
+import game.managers.ProjectileManager;
+import game.network.GameState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro-benchmark for multiplayer projectile sync
+ * Feeds a ProjectileManager a field of server projectiles that move every frame,
+ * with shots leaving the screen and new ones spawning, and reports the time of
+ * each syncProjectiles() call.
+ * Usage: ProjectileSyncBenchmark [projectiles] [frames]
+ */
+public class ProjectileSyncBenchmark {
+    private static final int WORLD_SIZE = 720;
+    private static final int SPEED = 5;
+    private static final int WARMUP_FRAMES = 300;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        // Enemy shots only: those need no GamePanel to construct
+        ProjectileManager manager = new ProjectileManager(null);
+        Random random = new Random(42);
+        int[] nextId = {1};
+        List<GameState.ProjectileState> field = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            field.add(spawn(random, nextId, random.nextInt(WORLD_SIZE)));
+        }
+
+        long[] syncNanos = new long[frames];
+        for (int frame = -WARMUP_FRAMES; frame < frames; frame++) {
+            List<GameState.ProjectileState> next = new ArrayList<>(count);
+            for (GameState.ProjectileState projectile : field) {
+                int y = projectile.getY() + SPEED;
+                next.add(y > WORLD_SIZE
+                        ? spawn(random, nextId, 0)
+                        : new GameState.ProjectileState(projectile.getId(), projectile.getX(), y, false,
+                                projectile.getShooterId()));
+            }
+            field = next;
+
+            long start = System.nanoTime();
+            manager.syncProjectiles(field, "benchmark");
+            if (frame >= 0) {
+                syncNanos[frame] = System.nanoTime() - start;
+            }
+        }
+
+        if (manager.getProjectiles().size() != count) {
+            throw new IllegalStateException("Expected " + count + " projectiles, got " + manager.getProjectiles().size());
+        }
+
+        Arrays.sort(syncNanos);
+        System.out.println("Live projectiles:      " + count);
+        System.out.println("Frames:                " + frames);
+        System.out.printf("Sync time:             p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                syncNanos[frames / 2] / 1e6,
+                syncNanos[frames * 99 / 100] / 1e6,
+                syncNanos[frames - 1] / 1e6);
+        System.out.printf("Projectile pool hits:  %.1f%%%n", manager.getProjectilePoolHitRate() * 100);
+    }
+
+    private static GameState.ProjectileState spawn(Random random, int[] nextId, int y) {
+        return new GameState.ProjectileState(nextId[0]++, random.nextInt(WORLD_SIZE), y, false, "enemy");
+    }
+}
@@ -0,0 +1,87 @@
+package game;
+
+import game.network.GameServer;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Connection load test for the Game Server
+ * Opens many idle client connections against an in-process server and reports
+ * accept latency, heap and direct memory per connection and platform thread count.
+ * Usage: ServerLoadLauncher [clients] [selector|virtual] [port]
+ */
+public class ServerLoadLauncher {
+    public static void main(String[] args) throws Exception {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        boolean virtual = args.length > 1 && args[1].equals("virtual");
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : GameServer.DEFAULT_PORT;
+
+        GameServer server = GameServer.getInstance();
+        server.setPort(port);
+        server.setTransportMode(virtual ? GameServer.TransportMode.VIRTUAL_THREADS : GameServer.TransportMode.SELECTOR);
+        server.start();
+        Thread.sleep(500);
+
+        long heapBefore = usedHeap();
+        long directBefore = usedDirectMemory();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        // Connect one client at a time and wait until the server has registered it
+        List<Socket> sockets = new ArrayList<>(clientCount);
+        long[] acceptNanos = new long[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            long start = System.nanoTime();
+            sockets.add(new Socket("localhost", port));
+            while (server.getClientCount() <= i) {
+                Thread.onSpinWait();
+            }
+            acceptNanos[i] = System.nanoTime() - start;
+        }
+
+        long heapAfter = usedHeap();
+        long directAfter = usedDirectMemory();
+        int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+        Arrays.sort(acceptNanos);
+
+        System.out.println("Transport:             " + server.getTransportMode());
+        System.out.println("Connections:           " + clientCount);
+        System.out.printf("Accept latency:        p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                acceptNanos[clientCount / 2] / 1e6,
+                acceptNanos[clientCount * 99 / 100] / 1e6,
+                acceptNanos[clientCount - 1] / 1e6);
+        System.out.printf("Heap per connection:   %.1f KB (client sockets included)%n",
+                (heapAfter - heapBefore) / 1024.0 / clientCount);
+        System.out.printf("Direct per connection: %.1f KB%n",
+                (directAfter - directBefore) / 1024.0 / clientCount);
+        System.out.println("Platform threads:      " + threadsBefore + " -> " + threadsAfter);
+
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        server.stop();
+        System.exit(0);
+    }
+
+    private static long usedDirectMemory() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
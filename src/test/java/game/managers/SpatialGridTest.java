@@ -0,0 +1,163 @@
+package game.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The grid is only a broad phase: a query may return extra candidates, but
+ * must never miss an item whose box overlaps, and must list each item once.
+ * Checked against plain box overlap, the all-pairs test it replaces.
+ */
+class SpatialGridTest {
+    private static final int WORLD = 720;
+    private static final int CELL = 48;
+
+    private static boolean overlaps(int[] a, int[] b) {
+        return a[0] < b[0] + b[2] && b[0] < a[0] + a[2] && a[1] < b[1] + b[3] && b[1] < a[1] + a[3];
+    }
+
+    private static void insertAll(SpatialGrid grid, List<int[]> boxes) {
+        grid.clear();
+        for (int i = 0; i < boxes.size(); i++) {
+            int[] box = boxes.get(i);
+            grid.insert(i, box[0], box[1], box[2], box[3]);
+        }
+    }
+
+    // Candidates for the box, checked for duplicates
+    private static Set<Integer> query(SpatialGrid grid, int[] box) {
+        int count = grid.query(box[0], box[1], box[2], box[3]);
+        Set<Integer> found = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            assertTrue(found.add(grid.result(i)), "item " + grid.result(i) + " returned twice");
+        }
+        return found;
+    }
+
+    // Every item overlapping each query box must be among its candidates
+    private static void assertFindsAllOverlaps(SpatialGrid grid, List<int[]> items, List<int[]> queries) {
+        insertAll(grid, items);
+        for (int[] box : queries) {
+            Set<Integer> found = query(grid, box);
+            for (int i = 0; i < items.size(); i++) {
+                if (overlaps(items.get(i), box)) {
+                    assertTrue(found.contains(i), "missed item " + i + " for query at " + box[0] + "," + box[1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyGridFindsNothing() {
+        SpatialGrid grid = new SpatialGrid(WORLD, WORLD, CELL);
+        grid.clear();
+
+        assertEquals(0, grid.query(0, 0, WORLD, WORLD));
+        assertEquals(0, grid.query(-100, -100, 10, 10));
+    }
+
+    @Test
+    void clearForgetsEarlierItems() {
+        SpatialGrid grid = new SpatialGrid(WORLD, WORLD, CELL);
+        grid.insert(0, 100, 100, 12, 24);
+        assertEquals(1, grid.query(90, 90, 48, 48));
+
+        grid.clear();
+        assertEquals(0, grid.query(90, 90, 48, 48));
+    }
+
+    @Test
+    void findsItemsStraddlingCellEdges() {
+        List<int[]> items = new ArrayList<>();
+        // Corners just before, on and just after cell boundaries, in both axes
+        for (int edge = CELL; edge < WORLD; edge += CELL) {
+            items.add(new int[]{edge - 1, edge - 1, 12, 24});
+            items.add(new int[]{edge, edge, 12, 24});
+            items.add(new int[]{edge - 6, 200, 12, 24});
+            items.add(new int[]{200, edge - 12, 12, 24});
+        }
+        List<int[]> queries = new ArrayList<>();
+        for (int edge = CELL; edge < WORLD; edge += CELL) {
+            queries.add(new int[]{edge - CELL, edge - CELL, CELL, CELL}); // Ends exactly at the edge
+            queries.add(new int[]{edge, edge, CELL, CELL});               // Starts exactly at it
+            queries.add(new int[]{edge - CELL / 2, 180, CELL, CELL});     // Spans it
+        }
+
+        assertFindsAllOverlaps(new SpatialGrid(WORLD, WORLD, CELL), items, queries);
+    }
+
+    @Test
+    void findsItemsOffWorldAndAtNegativeCoordinates() {
+        List<int[]> items = new ArrayList<>();
+        items.add(new int[]{-6, -12, 12, 24});          // Corner off the top left, box reaching in
+        items.add(new int[]{-500, -500, 12, 24});       // Entirely off world
+        items.add(new int[]{WORLD - 6, WORLD - 12, 12, 24});
+        items.add(new int[]{WORLD + 300, 100, 12, 24});
+        items.add(new int[]{100, -30, 12, 24});         // Enemy shot just spawning above the screen
+        List<int[]> queries = new ArrayList<>();
+        queries.add(new int[]{-48, -48, 48, 48});
+        queries.add(new int[]{0, 0, 48, 48});
+        queries.add(new int[]{-520, -520, 48, 48});
+        queries.add(new int[]{WORLD - 24, WORLD - 24, 48, 48});
+        queries.add(new int[]{WORLD + 290, 90, 48, 48});
+        queries.add(new int[]{90, -48, 48, 48});
+
+        SpatialGrid grid = new SpatialGrid(WORLD, WORLD, CELL);
+        assertFindsAllOverlaps(grid, items, queries);
+        insertAll(grid, items);
+        assertTrue(query(grid, new int[]{-520, -520, 48, 48}).contains(1));
+    }
+
+    @Test
+    void findsSameHitsAsAllPairs() {
+        Random random = new Random(42);
+        SpatialGrid grid = new SpatialGrid(WORLD, WORLD, CELL);
+        SpatialGrid.Results results = new SpatialGrid.Results();
+        for (int round = 0; round < 20; round++) {
+            // Bullets and enemies, some partly off screen, with mixed sizes to exercise the widened query
+            List<int[]> bullets = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                int width = 4 + random.nextInt(i % 10 == 0 ? 60 : 12);
+                bullets.add(new int[]{random.nextInt(WORLD + 80) - 40, random.nextInt(WORLD + 80) - 40,
+                        width, 2 * width});
+            }
+            List<int[]> enemies = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                enemies.add(new int[]{random.nextInt(WORLD + 96) - 48, random.nextInt(WORLD + 96) - 48, CELL, CELL});
+            }
+
+            Set<Long> expected = new HashSet<>();
+            for (int e = 0; e < enemies.size(); e++) {
+                for (int b = 0; b < bullets.size(); b++) {
+                    if (overlaps(bullets.get(b), enemies.get(e))) {
+                        expected.add((long) e << 32 | b);
+                    }
+                }
+            }
+
+            insertAll(grid, bullets);
+            grid.prepare();
+            Set<Long> actual = new HashSet<>();
+            for (int e = 0; e < enemies.size(); e++) {
+                int[] enemy = enemies.get(e);
+                int count = grid.query(enemy[0], enemy[1], enemy[2], enemy[3], results);
+                assertEquals(count, results.size());
+                for (int i = 0; i < count; i++) {
+                    int b = results.get(i);
+                    if (overlaps(bullets.get(b), enemy)) {
+                        assertTrue(actual.add((long) e << 32 | b), "pair returned twice");
+                    }
+                }
+            }
+            assertEquals(expected, actual, "round " + round);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package game.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static game.network.TestStates.assertStateEquals;
+import static game.network.TestStates.body;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Snapshot encoding on the server side: deltas against the client's last
+ * acknowledged tick, and full snapshots whenever that baseline can't be used.
+ */
+class ClientHandlerDeltaTest {
+    private final TestClientHandler handler = new TestClientHandler();
+    private final GameStateCodec client = new GameStateCodec();
+
+    private ByteBuffer send(GameState state) {
+        handler.sendState(state);
+        ByteBuffer frame = body(handler.nextFrame());
+        assertNull(handler.nextFrame());
+        return frame;
+    }
+
+    private void ack(int tick) {
+        handler.handleMessage(new SnapshotAck(tick));
+    }
+
+    // The tick a snapshot frame is a delta against, 0 for a full snapshot
+    private static int baseTick(ByteBuffer frame) {
+        ByteBuffer in = frame.duplicate();
+        in.position(2); // Version and type
+        readVarInt(in); // Tick
+        return readVarInt(in);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    @Test
+    void snapshotsAreFullUntilAcknowledged() throws IOException {
+        for (int tick = 1; tick <= 3; tick++) {
+            ByteBuffer frame = send(TestStates.sample(tick));
+            assertEquals(0, baseTick(frame), "tick " + tick);
+            assertStateEquals(TestStates.sample(tick), (GameState) client.decode(frame));
+        }
+    }
+
+    @Test
+    void snapshotIsDeltaAgainstAcknowledgedTick() throws IOException {
+        client.decode(send(TestStates.sample(1)));
+        client.decode(send(TestStates.sample(2)));
+        ack(1);
+
+        ByteBuffer frame = send(TestStates.sample(3));
+        assertEquals(1, baseTick(frame));
+        assertStateEquals(TestStates.sample(3), (GameState) client.decode(frame));
+    }
+
+    @Test
+    void olderAckDoesNotMoveBaselineBack() throws IOException {
+        client.decode(send(TestStates.sample(1)));
+        client.decode(send(TestStates.sample(2)));
+        ack(2);
+        ack(1); // Reordered datagram
+
+        ByteBuffer frame = send(TestStates.sample(3));
+        assertEquals(2, baseTick(frame));
+        assertStateEquals(TestStates.sample(3), (GameState) client.decode(frame));
+    }
+
+    @Test
+    void staleAckFallsBackToFullSnapshot() throws IOException {
+        client.decode(send(TestStates.sample(1)));
+        ack(1);
+
+        // Far enough ahead that the client may no longer hold tick 1
+        ByteBuffer frame = send(TestStates.sample(1 + GameStateCodec.BASELINE_HISTORY));
+        assertEquals(0, baseTick(frame));
+        assertStateEquals(TestStates.sample(1 + GameStateCodec.BASELINE_HISTORY), (GameState) client.decode(frame));
+    }
+
+    @Test
+    void ackForUnsentTickFallsBackToFullSnapshot() throws IOException {
+        client.decode(send(TestStates.sample(1)));
+        ack(5); // Never sent to this client
+
+        ByteBuffer frame = send(TestStates.sample(6));
+        assertEquals(0, baseTick(frame));
+        assertStateEquals(TestStates.sample(6), (GameState) client.decode(frame));
+    }
+}
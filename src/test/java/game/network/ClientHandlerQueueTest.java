@@ -0,0 +1,66 @@
+package game.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static game.network.TestStates.assertStateEquals;
+import static game.network.TestStates.body;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Outbound backpressure: snapshots keep only the latest unsent one, reliable
+ * messages queue up to a bound, past which the client is dropped.
+ */
+class ClientHandlerQueueTest {
+    private final TestClientHandler handler = new TestClientHandler();
+    private final GameStateCodec client = new GameStateCodec();
+
+    private static GameEvent event(int i) {
+        return new GameEvent(GameEvent.ENEMY_HIT, "p1", i, i, 1);
+    }
+
+    @Test
+    void newerSnapshotReplacesUnsentOne() throws IOException {
+        handler.sendState(TestStates.sample(1));
+        handler.sendState(TestStates.sample(2));
+
+        assertEquals(1, handler.getSkippedStates());
+        assertEquals(1, handler.getQueueDepth());
+        assertStateEquals(TestStates.sample(2), (GameState) client.decode(body(handler.nextFrame())));
+        assertNull(handler.nextFrame());
+    }
+
+    @Test
+    void eventsAreWrittenBeforeThePendingSnapshot() throws IOException {
+        handler.sendState(TestStates.sample(1));
+        handler.sendEvent(event(0));
+
+        assertInstanceOf(GameEvent.class, client.decode(body(handler.nextFrame())));
+        assertStateEquals(TestStates.sample(1), (GameState) client.decode(body(handler.nextFrame())));
+        assertNull(handler.nextFrame());
+    }
+
+    @Test
+    void fullQueueKeepsTheClient() {
+        for (int i = 0; i < ClientHandler.MAX_PENDING_MESSAGES; i++) {
+            handler.sendEvent(event(i));
+        }
+
+        assertEquals(0, handler.disconnects);
+        assertEquals(ClientHandler.MAX_PENDING_MESSAGES, handler.getQueueDepth());
+    }
+
+    @Test
+    void queueOverflowDisconnectsTheClient() {
+        for (int i = 0; i <= ClientHandler.MAX_PENDING_MESSAGES; i++) {
+            handler.sendEvent(event(i));
+        }
+
+        assertEquals(1, handler.disconnects);
+        assertEquals(0, handler.getQueueDepth());
+        assertNull(handler.nextFrame());
+    }
+}
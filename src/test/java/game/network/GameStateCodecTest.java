@@ -0,0 +1,229 @@
+package game.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+
+import static game.network.TestStates.assertStateEquals;
+import static game.network.TestStates.body;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameStateCodecTest {
+
+    @Test
+    void fullSnapshotRoundTrip() throws IOException {
+        GameState state = TestStates.sample(7);
+        GameStateCodec decoded = new GameStateCodec();
+
+        Object message = decoded.decode(body(new GameStateCodec().encode(state)));
+
+        assertInstanceOf(GameState.class, message);
+        assertStateEquals(state, (GameState) message);
+    }
+
+    @Test
+    void deltaSnapshotRoundTrip() throws IOException {
+        GameState first = TestStates.sample(7);
+        GameState second = TestStates.next(first);
+        GameStateCodec sender = new GameStateCodec();
+        GameStateCodec receiver = new GameStateCodec();
+
+        ByteBuffer full = body(sender.encodeState(first, null));
+        receiver.decode(full);
+        ByteBuffer delta = body(sender.encodeState(second, first));
+        GameState decoded = (GameState) receiver.decode(delta);
+
+        assertStateEquals(second, decoded);
+        assertTrue(delta.limit() < full.limit() / 2, "delta " + delta.limit() + " bytes, full " + full.limit());
+    }
+
+    @Test
+    void deltaChainKeepsAllEntities() throws IOException {
+        GameStateCodec sender = new GameStateCodec();
+        GameStateCodec receiver = new GameStateCodec();
+        GameState baseline = TestStates.sample(1);
+        receiver.decode(body(sender.encodeState(baseline, null)));
+
+        // Every snapshot against the one two ticks back, as with a client acking late
+        GameState previous = baseline;
+        for (int tick = 2; tick < 100; tick++) {
+            GameState state = TestStates.sample(tick);
+            assertStateEquals(state, (GameState) receiver.decode(body(sender.encodeState(state, baseline))));
+            baseline = previous;
+            previous = state;
+        }
+    }
+
+    @Test
+    void deltaWithoutItsBaselineIsRejected() {
+        GameState first = TestStates.sample(7);
+        GameStateCodec sender = new GameStateCodec();
+        sender.encodeState(first, null);
+        ByteBuffer delta = body(sender.encodeState(TestStates.next(first), first));
+
+        IOException error = assertThrows(IOException.class, () -> new GameStateCodec().decode(delta));
+        assertTrue(error.getMessage().contains("Missing baseline"), error.getMessage());
+    }
+
+    @Test
+    void deltaAgainstOverwrittenBaselineIsRejected() throws IOException {
+        GameStateCodec sender = new GameStateCodec();
+        GameStateCodec receiver = new GameStateCodec();
+        GameState old = TestStates.sample(1);
+        receiver.decode(body(sender.encodeState(old, null)));
+        // Same history slot, later tick
+        receiver.decode(body(sender.encodeState(TestStates.sample(1 + GameStateCodec.BASELINE_HISTORY), null)));
+
+        ByteBuffer delta = body(sender.encodeState(TestStates.sample(2 + GameStateCodec.BASELINE_HISTORY), old));
+        assertThrows(IOException.class, () -> receiver.decode(delta));
+    }
+
+    @Test
+    void datagramDeltaUsesBaselineReceivedOverStream() throws IOException {
+        GameStateCodec sender = new GameStateCodec();
+        GameStateCodec senderDatagrams = sender.forDatagrams();
+        GameStateCodec receiver = new GameStateCodec();
+        GameStateCodec receiverDatagrams = receiver.forDatagrams();
+        GameState first = TestStates.sample(7);
+        GameState second = TestStates.next(first);
+        GameState third = TestStates.next(second);
+
+        receiver.decode(body(sender.encodeState(first, null)));
+        assertStateEquals(second, (GameState) receiverDatagrams.decode(body(senderDatagrams.encodeState(second, first))));
+        // And the other way round: a datagram snapshot is a baseline for the stream
+        assertStateEquals(third, (GameState) receiver.decode(body(sender.encodeState(third, second))));
+    }
+
+    @Test
+    void datagramsDecodeInAnyOrder() throws IOException {
+        GameStateCodec sender = new GameStateCodec().forDatagrams();
+        ByteBuffer first = body(sender.encode(TestStates.sample(7)));
+        ByteBuffer second = body(sender.encode(TestStates.sample(8)));
+
+        // The first one is late: strings in the second must not refer back to it
+        GameStateCodec receiver = new GameStateCodec().forDatagrams();
+        assertStateEquals(TestStates.sample(8), (GameState) receiver.decode(second));
+        assertStateEquals(TestStates.sample(7), (GameState) receiver.decode(first));
+        assertEquals(body(new GameStateCodec().forDatagrams().encode(TestStates.sample(8))).limit(), second.limit());
+    }
+
+    @Test
+    void internedStringsAreSentOnce() throws IOException {
+        GameStateCodec sender = new GameStateCodec();
+        GameEvent event = new GameEvent(GameEvent.PLAYER_HIT, TestStates.PLAYER_1, 0, 0, 2);
+        ByteBuffer first = body(sender.encode(event));
+        ByteBuffer second = body(sender.encode(event));
+
+        assertTrue(second.limit() + TestStates.PLAYER_1.length() <= first.limit(),
+                "first " + first.limit() + " bytes, second " + second.limit());
+
+        GameStateCodec receiver = new GameStateCodec();
+        assertEquals(TestStates.PLAYER_1, ((GameEvent) receiver.decode(first)).getPlayerId());
+        assertEquals(TestStates.PLAYER_1, ((GameEvent) receiver.decode(second)).getPlayerId());
+    }
+
+    @Test
+    void internedStringNeedsEarlierFrame() {
+        GameStateCodec sender = new GameStateCodec();
+        GameEvent event = new GameEvent(GameEvent.PLAYER_LEFT, TestStates.PLAYER_2, 0, 0, 0);
+        sender.encode(event);
+        ByteBuffer second = body(sender.encode(event));
+
+        IOException error = assertThrows(IOException.class, () -> new GameStateCodec().decode(second));
+        assertTrue(error.getMessage().contains("interned"), error.getMessage());
+    }
+
+    @Test
+    void messagesRoundTripOverStream() throws IOException {
+        GameStateCodec sender = new GameStateCodec();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        sender.write(out, new ServerHello(TestStates.PLAYER_1, 0x7ead_beef, 5001));
+        sender.write(out, new RoomMessage(RoomMessage.JOIN, "main"));
+        sender.write(out, new JoinRequest(TestStates.PLAYER_1, "alice", "/player/playership3.png", 4, 3));
+        sender.write(out, new PlayerInput(300, PlayerInput.LEFT | PlayerInput.SHOOT));
+        sender.write(out, new SnapshotAck(123_456));
+        sender.write(out, new GameEvent(GameEvent.ENEMY_DESTROYED, null, -12, 700, 50));
+        sender.writeState(out, TestStates.sample(3), null);
+
+        GameStateCodec receiver = new GameStateCodec();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        ServerHello hello = (ServerHello) receiver.read(in);
+        assertEquals(TestStates.PLAYER_1, hello.getPlayerId());
+        assertEquals(0x7ead_beef, hello.getUdpToken());
+        assertEquals(5001, hello.getUdpPort());
+
+        RoomMessage room = (RoomMessage) receiver.read(in);
+        assertEquals(RoomMessage.JOIN, room.getAction());
+        assertEquals("main", room.getRoomId());
+
+        JoinRequest join = (JoinRequest) receiver.read(in);
+        assertEquals(TestStates.PLAYER_1, join.getPlayerId());
+        assertEquals("alice", join.getUsername());
+        assertEquals("/player/playership3.png", join.getShipImagePath());
+        assertEquals(4, join.getSpeed());
+        assertEquals(3, join.getLives());
+
+        PlayerInput input = (PlayerInput) receiver.read(in);
+        assertEquals(300, input.getSequence());
+        assertEquals(PlayerInput.LEFT | PlayerInput.SHOOT, input.getButtons());
+
+        assertEquals(123_456, ((SnapshotAck) receiver.read(in)).getTick());
+
+        GameEvent event = (GameEvent) receiver.read(in);
+        assertEquals(GameEvent.ENEMY_DESTROYED, event.getType());
+        assertNull(event.getPlayerId());
+        assertEquals(-12, event.getX());
+        assertEquals(700, event.getY());
+        assertEquals(50, event.getValue());
+
+        assertStateEquals(TestStates.sample(3), (GameState) receiver.read(in));
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    void wrongVersionIsRejected() {
+        ByteBuffer frame = body(new GameStateCodec().encode(new SnapshotAck(1)));
+        frame.put(0, (byte) (GameStateCodec.VERSION + 1));
+
+        assertThrows(IOException.class, () -> new GameStateCodec().decode(frame));
+    }
+
+    @Test
+    void truncatedFrameIsRejected() {
+        ByteBuffer frame = body(new GameStateCodec().encode(TestStates.sample(3)));
+        frame.limit(frame.limit() / 2);
+
+        assertThrows(IOException.class, () -> new GameStateCodec().decode(frame));
+    }
+
+    @Test
+    void smallerThanJavaSerialization() throws IOException {
+        GameState first = TestStates.sample(7);
+        GameState second = TestStates.next(first);
+        GameStateCodec codec = new GameStateCodec();
+        int full = codec.encodeState(first, null).remaining();
+        int delta = codec.encodeState(second, first).remaining();
+
+        // What the server used to send: a fresh ObjectOutputStream frame per snapshot
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(second);
+        }
+        int serialized = bytes.size();
+
+        assertTrue(full * 3 < serialized, "full " + full + " bytes, serialized " + serialized);
+        assertTrue(delta * 10 < serialized, "delta " + delta + " bytes, serialized " + serialized);
+    }
+}
@@ -0,0 +1,135 @@
+package game.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Replay files are read back from disk, so every length in them is untrusted:
+ * a damaged block must fail with an IOException, never hang or hand out junk.
+ */
+class ReplayReaderTest {
+    private Path file;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        file = Files.createTempFile("replay", ".replay");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    // One state record, as ReplayRecorder writes it
+    private static byte[] stateRecord(int tick) throws IOException {
+        ByteBuffer frame = new GameStateCodec().encode(TestStates.sample(tick));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ReplayRecorder.KIND_STATE);
+        out.writeInt(tick);
+        out.write(frame.array(), 0, frame.limit());
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] buffer = new byte[raw.length + 64];
+        int length = deflater.deflate(buffer);
+        deflater.end();
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void writeFile(int tick, int rawLength, int compressedLength, byte[] body) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(ReplayRecorder.FILE_HEADER_SIZE + ReplayRecorder.BLOCK_HEADER_SIZE + body.length);
+        bytes.putInt(ReplayRecorder.MAGIC).putInt(ReplayRecorder.FORMAT_VERSION).put((byte) GameStateCodec.VERSION);
+        bytes.putInt(tick).putInt(rawLength).putInt(compressedLength).put(body);
+        Files.write(file, bytes.array());
+    }
+
+    @Test
+    void readsWellFormedBlock() throws IOException {
+        byte[] raw = stateRecord(5);
+        byte[] compressed = deflate(raw);
+        writeFile(5, raw.length, compressed.length, compressed);
+
+        try (ReplayReader reader = new ReplayReader(file)) {
+            assertEquals(1, reader.getKeyframeCount());
+            ReplayReader.Record record = reader.next();
+            assertEquals(5, record.getTick());
+            assertInstanceOf(GameState.class, record.getMessage());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void negativeRawLengthIsRejected() throws IOException {
+        byte[] compressed = deflate(stateRecord(5));
+        writeFile(5, -1, compressed.length, compressed);
+
+        try (ReplayReader reader = new ReplayReader(file)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void impossibleRawLengthIsRejected() throws IOException {
+        byte[] compressed = deflate(stateRecord(5));
+        writeFile(5, Integer.MAX_VALUE, compressed.length, compressed);
+
+        try (ReplayReader reader = new ReplayReader(file)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void truncatedDeflateStreamIsRejected() throws IOException {
+        byte[] raw = stateRecord(5);
+        byte[] compressed = deflate(raw);
+        byte[] cut = Arrays.copyOf(compressed, compressed.length / 2);
+        writeFile(5, raw.length, cut.length, cut);
+
+        try (ReplayReader reader = new ReplayReader(file)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void streamShorterThanRawLengthIsRejected() throws IOException {
+        byte[] raw = stateRecord(5);
+        byte[] compressed = deflate(raw);
+        writeFile(5, raw.length + 100, compressed.length, compressed);
+
+        try (ReplayReader reader = new ReplayReader(file)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void corruptDeflateDataIsRejected() throws IOException {
+        byte[] raw = stateRecord(5);
+        byte[] garbage = new byte[64];
+        Arrays.fill(garbage, (byte) 0xFF);
+        writeFile(5, raw.length, garbage.length, garbage);
+
+        try (ReplayReader reader = new ReplayReader(file)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+}
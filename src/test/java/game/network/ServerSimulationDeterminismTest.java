@@ -0,0 +1,127 @@
+package game.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Lockstep checks for the server simulation: a match recorded from a seed,
+ * as the joins and inputs fed to every tick and the state hash after it, must
+ * replay to the same hashes on every tick, whether steps run serially or fan
+ * out over the fork-join pool. Another seed must split, which shows the hash
+ * catches divergence.
+ */
+class ServerSimulationDeterminismTest {
+    private static final long SEED = 42;
+    private static final int PLAYERS = 4;
+    private static final int TICKS = 3000;
+
+    // What each tick was fed, and the hash it produced
+    private static final class Recording {
+        final List<List<JoinRequest>> joins = new ArrayList<>();
+        final List<List<String>> inputPlayers = new ArrayList<>();
+        final List<List<PlayerInput>> inputs = new ArrayList<>();
+        final long[] hashes = new long[TICKS];
+    }
+
+    private static JoinRequest join(String playerId) {
+        return new JoinRequest(playerId, playerId, "/player/playership3.png", 4, 3);
+    }
+
+    // Players mash random buttons, mostly with fire held, and rejoin after dying
+    private static Recording record(long seed) {
+        Recording recording = new Recording();
+        GameWorld world = new ServerSimulation(seed);
+        Random buttons = new Random(7);
+        List<JoinRequest> pendingJoins = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            pendingJoins.add(join("player" + i));
+        }
+        int sequence = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            for (JoinRequest join : pendingJoins) {
+                world.addPlayer(join);
+            }
+            recording.joins.add(pendingJoins);
+            pendingJoins = new ArrayList<>();
+
+            List<String> tickPlayers = new ArrayList<>();
+            List<PlayerInput> tickInputs = new ArrayList<>();
+            for (GameState.PlayerState player : world.snapshot().getPlayers()) {
+                int pressed = buttons.nextInt(16) | (buttons.nextInt(4) != 0 ? PlayerInput.SHOOT : 0);
+                PlayerInput input = new PlayerInput(++sequence, pressed);
+                world.applyInput(player.getPlayerId(), input);
+                tickPlayers.add(player.getPlayerId());
+                tickInputs.add(input);
+            }
+            recording.inputPlayers.add(tickPlayers);
+            recording.inputs.add(tickInputs);
+
+            world.step();
+            recording.hashes[tick] = world.stateHash();
+            for (GameEvent event : world.drainEvents()) {
+                if (event.getType() == GameEvent.PLAYER_DIED) {
+                    pendingJoins.add(join(event.getPlayerId()));
+                }
+            }
+        }
+        return recording;
+    }
+
+    // First tick whose hash differs from the recording, or -1
+    private static int replay(GameWorld world, Recording recording) {
+        for (int tick = 0; tick < TICKS; tick++) {
+            for (JoinRequest join : recording.joins.get(tick)) {
+                world.addPlayer(join);
+            }
+            List<String> tickPlayers = recording.inputPlayers.get(tick);
+            List<PlayerInput> tickInputs = recording.inputs.get(tick);
+            for (int i = 0; i < tickPlayers.size(); i++) {
+                world.applyInput(tickPlayers.get(i), tickInputs.get(i));
+            }
+            world.step();
+            world.drainEvents();
+            if (world.stateHash() != recording.hashes[tick]) {
+                return tick;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void sameSeedAndInputsGiveSameHashEveryTick() {
+        Recording recording = record(SEED);
+
+        assertEquals(-1, replay(new ServerSimulation(SEED), recording), "first tick that split");
+    }
+
+    @Test
+    void parallelStepMatchesSerialStep() {
+        // The pool must have workers, or ParallelRange quietly runs serially (see the surefire argLine)
+        assumeTrue(ForkJoinPool.getCommonPoolParallelism() >= 2, "common pool has a single worker");
+        Recording recording = record(SEED);
+
+        int threshold = ServerSimulation.getParallelThreshold();
+        ServerSimulation.setParallelThreshold(0);
+        try {
+            assertEquals(-1, replay(new ServerSimulation(SEED), recording), "first tick that split");
+        } finally {
+            ServerSimulation.setParallelThreshold(threshold);
+        }
+    }
+
+    @Test
+    void differentSeedDiverges() {
+        Recording recording = record(SEED);
+
+        int split = replay(new ServerSimulation(SEED + 1), recording);
+        assertTrue(split >= 0, "another seed replayed identically");
+    }
+}
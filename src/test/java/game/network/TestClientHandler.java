@@ -0,0 +1,22 @@
+package game.network;
+
+/**
+ * ClientHandler with no transport and no server: tests pull frames straight
+ * from {@link #nextFrame()} and count disconnects instead of closing anything.
+ */
+class TestClientHandler extends ClientHandler {
+    int disconnects;
+
+    TestClientHandler() {
+        super(null);
+    }
+
+    @Override
+    protected void onOutboundReady() {
+    }
+
+    @Override
+    public void disconnect() {
+        disconnects++;
+    }
+}
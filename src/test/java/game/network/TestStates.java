@@ -0,0 +1,119 @@
+package game.network;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Snapshots for the network tests, and a field-by-field comparison: decoded
+ * snapshots keep the baseline's entity order, so entities are matched by ID.
+ */
+final class TestStates {
+    static final String PLAYER_1 = "3f2a9c1e-0b7d-4e55-9a61-2c8d7f00a1b4";
+    static final String PLAYER_2 = "c0ffee00-1234-4abc-8def-56789abcdef0";
+
+    private TestStates() {
+    }
+
+    // Two players, a few enemies and shots; moves along with the tick
+    static GameState sample(int tick) {
+        GameState state = new GameState(tick);
+        state.setLevel(2);
+
+        List<GameState.PlayerState> players = new ArrayList<>();
+        players.add(new GameState.PlayerState(PLAYER_1, "alice", "/player/playership1.png",
+                100 + tick * 6, 600, 2, tick * 10, tick));
+        players.add(new GameState.PlayerState(PLAYER_2, "bob", "/player/playership2.png",
+                400 - tick * 3, 600, 5, 0, tick));
+        state.setPlayers(players);
+
+        List<GameState.EnemyState> enemies = new ArrayList<>();
+        for (int id = 1; id <= 10; id++) {
+            enemies.add(new GameState.EnemyState(id, id * 60, tick * 2 - id * 40, 1 + id % 3, 1 + id % 2));
+        }
+        state.setEnemies(enemies);
+
+        List<GameState.ProjectileState> projectiles = new ArrayList<>();
+        for (int id = 1; id <= 20; id++) {
+            boolean own = id % 2 == 0;
+            projectiles.add(new GameState.ProjectileState(id, id * 30, own ? 600 - tick * 10 : tick * 5,
+                    own, own ? PLAYER_1 : null));
+        }
+        state.setProjectiles(projectiles);
+        return state;
+    }
+
+    // The tick after: one enemy destroyed, one new enemy, bob left, a new shot
+    static GameState next(GameState previous) {
+        int tick = previous.getTick() + 1;
+        GameState state = sample(tick);
+        state.getPlayers().remove(1);
+        state.getEnemies().remove(3);
+        state.getEnemies().add(new GameState.EnemyState(99, 10, -40, 3, 3));
+        state.getProjectiles().add(new GameState.ProjectileState(21, 130, 580, true, PLAYER_1));
+        return state;
+    }
+
+    static void assertStateEquals(GameState expected, GameState actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getTick(), actual.getTick(), "tick");
+        assertEquals(expected.getLevel(), actual.getLevel(), "level");
+
+        Map<String, GameState.PlayerState> players = new HashMap<>();
+        for (GameState.PlayerState player : actual.getPlayers()) {
+            players.put(player.getPlayerId(), player);
+        }
+        assertEquals(expected.getPlayers().size(), players.size(), "players");
+        for (GameState.PlayerState want : expected.getPlayers()) {
+            GameState.PlayerState got = players.get(want.getPlayerId());
+            assertNotNull(got, "player " + want.getPlayerId());
+            assertEquals(want.getUsername(), got.getUsername());
+            assertEquals(want.getShipImagePath(), got.getShipImagePath());
+            assertEquals(want.getX(), got.getX());
+            assertEquals(want.getY(), got.getY());
+            assertEquals(want.getLives(), got.getLives());
+            assertEquals(want.getScore(), got.getScore());
+            assertEquals(want.getLastInput(), got.getLastInput());
+        }
+
+        Map<Integer, GameState.EnemyState> enemies = new HashMap<>();
+        for (GameState.EnemyState enemy : actual.getEnemies()) {
+            enemies.put(enemy.getId(), enemy);
+        }
+        assertEquals(expected.getEnemies().size(), enemies.size(), "enemies");
+        for (GameState.EnemyState want : expected.getEnemies()) {
+            GameState.EnemyState got = enemies.get(want.getId());
+            assertNotNull(got, "enemy " + want.getId());
+            assertEquals(want.getX(), got.getX());
+            assertEquals(want.getY(), got.getY());
+            assertEquals(want.getType(), got.getType());
+            assertEquals(want.getHealth(), got.getHealth());
+        }
+
+        Map<Integer, GameState.ProjectileState> projectiles = new HashMap<>();
+        for (GameState.ProjectileState projectile : actual.getProjectiles()) {
+            projectiles.put(projectile.getId(), projectile);
+        }
+        assertEquals(expected.getProjectiles().size(), projectiles.size(), "projectiles");
+        for (GameState.ProjectileState want : expected.getProjectiles()) {
+            GameState.ProjectileState got = projectiles.get(want.getId());
+            assertNotNull(got, "projectile " + want.getId());
+            assertEquals(want.getX(), got.getX());
+            assertEquals(want.getY(), got.getY());
+            assertEquals(want.isPlayerProjectile(), got.isPlayerProjectile());
+            assertEquals(want.getShooterId(), got.getShooterId());
+        }
+    }
+
+    // Copies a frame's body, everything after the length prefix or token, out of the codec's buffer
+    static ByteBuffer body(ByteBuffer frame) {
+        ByteBuffer body = ByteBuffer.allocate(frame.remaining() - 4);
+        body.put(frame.array(), frame.position() + 4, body.remaining()).flip();
+        return body;
+    }
+}